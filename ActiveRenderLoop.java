@@ -0,0 +1,156 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+
+/**
+ * Alternative to the Swing Timer: a dedicated thread that
+ * - advances the simulation in fixed GameWorld.TICK_MS steps measured with System.nanoTime()
+ * - renders as often as the display allows, interpolating between the last two steps
+ * - presents through a BufferStrategy on a Canvas, so no repaint() coalescing drops frames
+ *
+ * Frame pacing targets the display refresh rate. When BufferStrategy.show() blocks for
+ * most of a refresh (the driver is syncing to vblank) the loop stops sleeping on its own.
+ * On the static menu the loop parks until the game state changes, redrawing only now and
+ * then in case the buffer contents were lost. A flipped BufferStrategy has no reliable
+ * previous frame to patch, so frames here are always drawn whole.
+ */
+public class ActiveRenderLoop implements Runnable {
+
+    private static final long STEP_NANOS = GameWorld.TICK_MS * 1_000_000L;
+    // never simulate more than this much catch-up in one frame (debugger, window drag, ...)
+    private static final long MAX_FRAME_NANOS = 250_000_000L;
+    private static final int DEFAULT_REFRESH = 60;
+    private static final long IDLE_REDRAW_MS = 250;
+
+    private final GamePanel game;
+    private final Canvas canvas;
+    private final ScaledView view = new ScaledView();
+    private final long framePeriodNanos;
+    private volatile boolean running;
+    private boolean vsynced;
+
+    public ActiveRenderLoop(GamePanel game, Canvas canvas) {
+        this.game = game;
+        this.canvas = canvas;
+        this.framePeriodNanos = 1_000_000_000L / refreshRate(canvas.getGraphicsConfiguration());
+    }
+
+    /** Builds the window around a Canvas and starts the loop. Call on the EDT. */
+    public static void launch(boolean fullscreen) {
+        GamePanel game = new GamePanel(false);
+        Canvas canvas = new Canvas();
+        canvas.setPreferredSize(new Dimension(GameLauncher.WIDTH, GameLauncher.HEIGHT));
+        canvas.setIgnoreRepaint(true);
+        canvas.setFocusable(true);
+        game.attachSurface(canvas);
+
+        JFrame frame = new JFrame("Flappy Bird - Levels & Progress");
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setIgnoreRepaint(true);
+        frame.add(canvas);
+        GameLauncher.showFrame(frame, fullscreen);
+        canvas.createBufferStrategy(2);
+        canvas.requestFocusInWindow();
+
+        new ActiveRenderLoop(game, canvas).start();
+    }
+
+    public void start() {
+        running = true;
+        Thread t = new Thread(this, "game-loop");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        BufferStrategy strategy = canvas.getBufferStrategy();
+        long previous = System.nanoTime();
+        long accumulator = 0;
+
+        while (running) {
+            long frameStart = System.nanoTime();
+            long elapsed = Math.min(frameStart - previous, MAX_FRAME_NANOS);
+            previous = frameStart;
+
+            accumulator += elapsed;
+            while (accumulator >= STEP_NANOS) {
+                game.stepSimulation();
+                accumulator -= STEP_NANOS;
+            }
+            float alpha = accumulator / (float) STEP_NANOS;
+
+            boolean changed = game.consumeStateChange();
+            long showNanos = render(strategy, alpha);
+            if (!changed && game.isIdle()) {
+                try {
+                    game.awaitChange(IDLE_REDRAW_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                // idle time is not simulation time
+                previous = System.nanoTime();
+                accumulator = 0;
+                continue;
+            }
+            // show() that blocks for most of a refresh means the driver waits for vblank
+            vsynced = showNanos > framePeriodNanos / 2;
+            if (!vsynced) {
+                sleepUntil(frameStart + framePeriodNanos);
+            }
+        }
+    }
+
+    /** Renders one frame, redrawing while the back buffer gets lost. Returns time spent in show(). */
+    private long render(BufferStrategy strategy, float alpha) {
+        long showNanos = 0, renderNanos = 0;
+        do {
+            do {
+                Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    // logical frame, scaled to the canvas in one blit
+                    renderNanos += view.render(g, canvas.getWidth(), canvas.getHeight(), null, canvas.getGraphicsConfiguration(), game, alpha);
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            long before = System.nanoTime();
+            strategy.show();
+            Toolkit.getDefaultToolkit().sync();
+            showNanos = System.nanoTime() - before;
+        } while (strategy.contentsLost());
+        game.frameRendered(renderNanos);
+        game.framePresented();
+        return showNanos;
+    }
+
+    private static void sleepUntil(long deadline) {
+        long remaining;
+        // coarse sleep first, then spin the last millisecond for accuracy
+        while ((remaining = deadline - System.nanoTime()) > 1_000_000L) {
+            try {
+                Thread.sleep((remaining - 1_000_000L) / 1_000_000L, (int) ((remaining - 1_000_000L) % 1_000_000L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        while (deadline - System.nanoTime() > 0) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static int refreshRate(GraphicsConfiguration gc) {
+        if (gc == null) return DEFAULT_REFRESH;
+        int hz = gc.getDevice().getDisplayMode().getRefreshRate();
+        return hz == DisplayMode.REFRESH_RATE_UNKNOWN || hz <= 0 ? DEFAULT_REFRESH : hz;
+    }
+
+    public boolean isVsynced() {
+        return vsynced;
+    }
+}
@@ -0,0 +1,98 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Startup asset pipeline: decodes every image in parallel on a small pool, then pre-scales
+ * the sizes the game draws and builds the collision masks and the SpriteAtlas, all into the
+ * shared SpriteCache. The first menu frame and the first level then find everything cached
+ * instead of decoding on the EDT or the game thread.
+ */
+public final class AssetLoader {
+    private AssetLoader() {}
+
+    private static final String BACKGROUND = "background.jpg";
+
+    /** Number of steps preload() reports progress for. */
+    public static int stepCount() {
+        return sources().size() + scaledSizes().size() + 1;
+    }
+
+    /**
+     * Starts loading; progress receives the number of finished steps (out of stepCount())
+     * from a loader thread. The future completes once everything is cached.
+     */
+    public static CompletableFuture<Void> preload(IntConsumer progress) {
+        int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "asset-loader");
+            t.setDaemon(true);
+            return t;
+        });
+        SpriteCache cache = SpriteCache.shared();
+        AtomicInteger done = new AtomicInteger();
+        Runnable step = () -> progress.accept(done.incrementAndGet());
+
+        // decode every source in parallel
+        Map<String, CompletableFuture<Void>> decoded = new HashMap<>();
+        for (String src : sources()) {
+            decoded.put(src, CompletableFuture.runAsync(() -> cache.preload(src), pool).thenRun(step));
+        }
+        // each size is scaled (and masked) as soon as its own source is decoded
+        List<CompletableFuture<Void>> scaled = new ArrayList<>();
+        for (Size size : scaledSizes()) {
+            scaled.add(decoded.get(size.src).thenRunAsync(() -> {
+                if (size.mask) cache.mask(size.src, size.w, size.h); // scales as well
+                else cache.get(size.src, size.w, size.h);
+            }, pool).thenRun(step));
+        }
+        return CompletableFuture.allOf(scaled.toArray(new CompletableFuture<?>[0]))
+                .thenRunAsync(() -> SpriteAtlas.shared(), pool)
+                .thenRun(step)
+                .whenComplete((v, e) -> pool.shutdown());
+    }
+
+    private static List<String> sources() {
+        List<String> list = new ArrayList<>();
+        list.add(BACKGROUND);
+        for (SpriteAtlas.Region r : SpriteAtlas.regions()) {
+            if (!list.contains(r.src)) list.add(r.src);
+        }
+        return list;
+    }
+
+    /** A scaled copy (or its collision mask) the game asks the cache for. */
+    private static final class Size {
+        final String src;
+        final int w, h;
+        final boolean mask;
+
+        Size(String src, int w, int h, boolean mask) {
+            this.src = src;
+            this.w = w;
+            this.h = h;
+            this.mask = mask;
+        }
+    }
+
+    private static List<Size> scaledSizes() {
+        List<Size> list = new ArrayList<>();
+        list.add(new Size(BACKGROUND, GameWorld.WIDTH, GameWorld.HEIGHT, false));
+        for (SpriteAtlas.Region r : SpriteAtlas.regions()) {
+            list.add(new Size(r.src, r.w, r.h, false));
+        }
+        // the masks GameWorld looks up for the standard sizes (see SpriteMasks)
+        list.add(new Size(SpriteAtlas.BIRD.src, GameWorld.BIRD_W, GameWorld.BIRD_H, true));
+        list.add(new Size(SpriteAtlas.TUBE_BODY.src, LevelGenerator.TUBE_WIDTH, SpriteAtlas.TUBE_BODY.h, true));
+        list.add(new Size(SpriteAtlas.TUBE_TOP.src, LevelGenerator.TUBE_WIDTH, TubeColumn.CAP_HEIGHT, true));
+        list.add(new Size(SpriteAtlas.COIN.src, LevelGenerator.COIN_SIZE, LevelGenerator.COIN_SIZE, true));
+        list.add(new Size(SpriteAtlas.TIMER.src, LevelGenerator.TIMER_SIZE, LevelGenerator.TIMER_SIZE, true));
+        return list;
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * The player. Falls with simple integer gravity, jump() kicks it upwards.
+ */
+public class Bird extends GameObject {
+    public Bird(int x, int y, int birdW, int birdH) {
+        super(x, y);
+        this.width = birdW;
+        this.height = birdH;
+        // position correction to center
+        this.x -= width/2;
+        this.y -= height/2;
+        savePrevious();
+        this.dy = 2;
+    }
+
+    @Override
+    public void tick() {
+        savePrevious();
+        if (dy < 8) dy += 1;
+        this.y += dy;
+        checkWindowBorder();
+    }
+
+    public void jump() {
+        if (dy > 0) dy = 0;
+        dy -= 14;
+    }
+
+    private void checkWindowBorder() {
+        if (this.x > GameWorld.WIDTH - width) this.x = GameWorld.WIDTH - width;
+        if (this.x < 0) this.x = 0;
+        if (this.y > GameWorld.HEIGHT - 50 - height) this.y = GameWorld.HEIGHT - 50 - height;
+        if (this.y < 0) this.y = 0;
+    }
+}
@@ -0,0 +1,181 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays many independent seeded games with JumpPolicy bots, in parallel on a ForkJoinPool,
+ * and reports per bot and level how often the level was passed (requiredPointsToPass)
+ * and how long the bird survived. For tuning the difficulty formulas in LevelGenerator and
+ * TubeColumn.
+ *
+ * Every game is its own GameWorld with inline column generation, so games share nothing
+ * and the work splits evenly; a worker adds into its own counters and results are only
+ * combined when tasks join. Ticking a world allocates nothing.
+ *
+ * Usage: java BotHarness [-games N] [-threads N] [-seed N] [-pixel] [-scaling]
+ *   -pixel    collide with sprite masks like the game does (default: bounding boxes)
+ *   -scaling  repeat the run with 1, 2, 4, ... threads and print the speedup
+ */
+public class BotHarness {
+
+    // counters of one (bot, level) cell
+    private static final int GAMES = 0, PASSED = 1, TICKS = 2, POINTS = 3, COINS = 4, HIT_TUBE = 5, TIME_UP = 6;
+    private static final int FIELDS = 7;
+    // games a task plays itself instead of splitting further
+    private static final int LEAF_GAMES = 8;
+
+    private final CollisionMasks masks;
+    private final long baseSeed;
+
+    public BotHarness(CollisionMasks masks, long baseSeed) {
+        this.masks = masks;
+        this.baseSeed = baseSeed;
+    }
+
+    /** Plays one game to the end and adds it to stats. */
+    void play(JumpPolicy bot, int level, long seed, long[] stats) {
+        GameWorld world = new GameWorld(level, seed, false, masks);
+        while (world.isRunning()) {
+            if (bot.shouldJump(world)) world.jump();
+            world.tick();
+        }
+        stats[GAMES]++;
+        if (world.isPassed()) stats[PASSED]++;
+        stats[TICKS] += world.getTicks();
+        stats[POINTS] += world.getPoints();
+        stats[COINS] += world.getCoinsCollected();
+        if (world.getOutcome() == GameWorld.Outcome.HIT_TUBE) stats[HIT_TUBE]++;
+        if (world.getOutcome() == GameWorld.Outcome.TIME_UP) stats[TIME_UP]++;
+    }
+
+    /** Seed of game i on a level; the same for every bot, so bots play the same layouts. */
+    long seed(int level, int game) {
+        long h = baseSeed + level * 0x9E3779B97F4A7C15L + game * 0xD1B54A32D192ED03L;
+        h = (h ^ (h >>> 32)) * 0x4CF5AD432745937FL;
+        return h ^ (h >>> 29);
+    }
+
+    /** Games [from, to) of one bot on one level, split in halves down to LEAF_GAMES. */
+    private class Games extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+        private final JumpPolicy bot;
+        private final int level, from, to;
+
+        Games(JumpPolicy bot, int level, int from, int to) {
+            this.bot = bot;
+            this.level = level;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= LEAF_GAMES) {
+                long[] stats = new long[FIELDS];
+                for (int g = from; g < to; g++) play(bot, level, seed(level, g), stats);
+                return stats;
+            }
+            int mid = (from + to) >>> 1;
+            Games right = new Games(bot, level, mid, to);
+            right.fork();
+            long[] stats = new Games(bot, level, from, mid).compute();
+            long[] r = right.join();
+            for (int i = 0; i < FIELDS; i++) stats[i] += r[i];
+            return stats;
+        }
+    }
+
+    /** Runs games per level for every bot; result[bot][level] holds the cell counters. */
+    public long[][][] run(ForkJoinPool pool, JumpPolicy[] bots, int games) {
+        Games[][] tasks = new Games[bots.length][GameWorld.MAX_LEVEL + 1];
+        for (int b = 0; b < bots.length; b++) {
+            for (int level = 1; level <= GameWorld.MAX_LEVEL; level++) {
+                tasks[b][level] = new Games(bots[b], level, 0, games);
+                pool.execute(tasks[b][level]);
+            }
+        }
+        long[][][] result = new long[bots.length][GameWorld.MAX_LEVEL + 1][];
+        for (int b = 0; b < bots.length; b++) {
+            for (int level = 1; level <= GameWorld.MAX_LEVEL; level++) {
+                result[b][level] = tasks[b][level].join();
+            }
+        }
+        return result;
+    }
+
+    public static void main(String[] args) {
+        int games = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 42;
+        boolean pixel = false, scaling = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-games": games = Integer.parseInt(args[++i]); break;
+                case "-threads": threads = Integer.parseInt(args[++i]); break;
+                case "-seed": seed = Long.parseLong(args[++i]); break;
+                case "-pixel": pixel = true; break;
+                case "-scaling": scaling = true; break;
+                default: throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+        Map<String, JumpPolicy> bots = new LinkedHashMap<>();
+        bots.put("planner", JumpPolicy.PLANNER);
+        bots.put("gap-seeker", JumpPolicy.GAP_SEEKER);
+        bots.put("lookahead", JumpPolicy.LOOKAHEAD);
+        bots.put("random-5%", JumpPolicy.random(0.05, seed));
+        bots.put("never", JumpPolicy.NEVER);
+        String[] names = bots.keySet().toArray(new String[0]);
+        JumpPolicy[] policies = bots.values().toArray(new JumpPolicy[0]);
+
+        BotHarness harness = new BotHarness(pixel ? SpriteMasks.shared() : null, seed);
+        // warm up the JIT so the timed runs compare like with like
+        harness.run(ForkJoinPool.commonPool(), policies, Math.max(1, games / 20));
+
+        if (scaling) {
+            double base = timed(harness, 1, policies, games, null);
+            System.out.printf("threads %3d: %7.2f s  speedup %5.2f%n", 1, base, 1.0);
+            for (int t = 2; t < threads * 2; t *= 2) {
+                int n = Math.min(t, threads);
+                double secs = timed(harness, n, policies, games, null);
+                System.out.printf("threads %3d: %7.2f s  speedup %5.2f%n", n, secs, base / secs);
+            }
+            return;
+        }
+        long[][][][] result = new long[1][][][];
+        double secs = timed(harness, threads, policies, games, result);
+        print(names, result[0]);
+        long ticks = 0;
+        for (long[][] bot : result[0]) for (int l = 1; l < bot.length; l++) ticks += bot[l][TICKS];
+        System.out.printf("%d games, %d ticks in %.2f s on %d threads: %.0f games/s, %.1fM ticks/s%n",
+                (long) games * policies.length * GameWorld.MAX_LEVEL, ticks, secs, threads,
+                games * policies.length * GameWorld.MAX_LEVEL / secs, ticks / secs / 1e6);
+    }
+
+    private static double timed(BotHarness harness, int threads, JumpPolicy[] bots, int games, long[][][][] out) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long t0 = System.nanoTime();
+            long[][][] r = harness.run(pool, bots, games);
+            double secs = (System.nanoTime() - t0) / 1e9;
+            if (out != null) out[0] = r;
+            return secs;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void print(String[] names, long[][][] result) {
+        System.out.printf("%-12s %5s %7s %6s %10s %7s %6s %6s %6s%n",
+                "bot", "level", "games", "pass%", "avg ticks", "points", "coins", "hit%", "time%");
+        for (int b = 0; b < names.length; b++) {
+            for (int level = 1; level <= GameWorld.MAX_LEVEL; level++) {
+                long[] c = result[b][level];
+                double n = Math.max(1, c[GAMES]);
+                System.out.printf("%-12s %5d %7d %6.1f %10.1f %7.2f %6.2f %6.1f %6.1f%n",
+                        names[b], level, c[GAMES], 100 * c[PASSED] / n, c[TICKS] / n, c[POINTS] / n,
+                        c[COINS] / n, 100 * c[HIT_TUBE] / n, 100 * c[TIME_UP] / n);
+            }
+        }
+    }
+}
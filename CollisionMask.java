@@ -0,0 +1,58 @@
+/**
+ * 1-bit opacity mask of a sprite, one packed long[] row per pixel row (bit i = pixel x),
+ * built once from the scaled sprite's alpha channel (see SpriteCache.mask).
+ * Overlap tests AND 64 pixels at a time, after the bounding boxes already intersect.
+ * No AWT here, so the headless GameWorld can use it.
+ */
+public final class CollisionMask {
+    private final int width, height, words;
+    private final long[] bits; // row-major, words longs per row
+
+    public CollisionMask(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.words = (width + 63) >>> 6;
+        this.bits = new long[words * height];
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    public void set(int x, int y) {
+        bits[y * words + (x >>> 6)] |= 1L << x;
+    }
+
+    public boolean get(int x, int y) {
+        return (bits[y * words + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    /** n (<= 64) bits of a row starting at column col; columns past the mask read as 0. */
+    private long row(int y, int col, int n) {
+        if (col >= width) return 0L;
+        int base = y * words;
+        int w = col >>> 6, sh = col & 63;
+        long v = bits[base + w] >>> sh;
+        if (sh != 0 && w + 1 < words) v |= bits[base + w + 1] << (64 - sh);
+        return n < 64 ? v & ((1L << n) - 1) : v;
+    }
+
+    /**
+     * Do the opaque pixels of a (placed at ax,ay, covering aw x ah) and b touch?
+     * A box taller than its mask repeats the mask rows, which is how tiled tube bodies
+     * are drawn.
+     */
+    public static boolean overlaps(CollisionMask a, int ax, int ay, int aw, int ah,
+                                   CollisionMask b, int bx, int by, int bw, int bh) {
+        int x0 = Math.max(ax, bx), x1 = Math.min(ax + aw, bx + bw);
+        int y0 = Math.max(ay, by), y1 = Math.min(ay + ah, by + bh);
+        if (x0 >= x1 || y0 >= y1) return false;
+        for (int y = y0; y < y1; y++) {
+            int ra = (y - ay) % a.height, rb = (y - by) % b.height;
+            for (int x = x0; x < x1; x += 64) {
+                int n = Math.min(64, x1 - x);
+                if ((a.row(ra, x - ax, n) & b.row(rb, x - bx, n)) != 0) return true;
+            }
+        }
+        return false;
+    }
+}
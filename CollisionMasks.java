@@ -0,0 +1,14 @@
+/**
+ * Supplies the opacity masks GameWorld uses for pixel-accurate collision.
+ * A null mask means "no sprite": bird, body, coin and timer then collide by bounding
+ * box, and the decorative tube cap does not collide at all (as it is not drawn).
+ */
+public interface CollisionMasks {
+    CollisionMask bird(int w, int h);
+    /** One vertical tile of the tube body; it repeats down the tube like the drawn one. */
+    CollisionMask tubeBody(int w);
+    /** The tube cap, TubeColumn.CAP_HEIGHT high on every tube. */
+    CollisionMask tubeCap(int w);
+    CollisionMask coin(int w, int h);
+    CollisionMask timer(int w, int h);
+}
@@ -0,0 +1,121 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-producer/single-consumer ring buffer of upcoming column descriptors.
+ * - consumer: TubeColumn on the tick thread, next() takes one column
+ * - producer: a LevelGenerator, run on a shared background thread that tops the buffer
+ *   up whenever it drops below half full; or inline on the consumer (headless runs)
+ *
+ * Descriptors are stored as parallel int arrays, so nothing is allocated per column.
+ * The column sequence is the generator's, independent of which thread produced it.
+ */
+public class ColumnStream {
+    private static final int CAPACITY = 64; // power of two
+
+    private static final ExecutorService PRODUCER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "level-generator");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final int mask = CAPACITY - 1;
+    private final int[] gapY = new int[CAPACITY];
+    private final int[] gapSize = new int[CAPACITY];
+    private final int[] coinY = new int[CAPACITY];
+    private final int[] timerDx = new int[CAPACITY];
+    private final int[] timerY = new int[CAPACITY];
+    // head: next slot to read (written by consumer), tail: next slot to write (by producer)
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicBoolean refillScheduled = new AtomicBoolean();
+    private final Runnable refillTask = () -> {
+        refill();
+        refillScheduled.set(false);
+    };
+
+    private final LevelGenerator generator;
+    private final boolean background;
+
+    // column taken by the last next()
+    private int curGapY, curGapSize, curCoinY, curTimerDx, curTimerY;
+
+    /**
+     * @param background generate on the shared producer thread; false generates inline
+     *                   on the consumer when the buffer runs dry
+     */
+    public ColumnStream(LevelGenerator generator, boolean background) {
+        this.generator = generator;
+        this.background = background;
+        refill(); // first screen is ready before the level starts
+    }
+
+    /* ---------- producer side ---------- */
+
+    void write(int slot, int gy, int gs, int cy, int tdx, int ty) {
+        gapY[slot] = gy;
+        gapSize[slot] = gs;
+        coinY[slot] = cy;
+        timerDx[slot] = tdx;
+        timerY[slot] = ty;
+    }
+
+    private void refill() {
+        long t = tail.get();
+        long limit = head.getAcquire() + CAPACITY;
+        while (t < limit) {
+            generator.generate(this, (int) t & mask);
+            t++;
+        }
+        tail.setRelease(t); // publishes the slots written above
+    }
+
+    private void requestRefill() {
+        if (refillScheduled.compareAndSet(false, true)) {
+            PRODUCER.execute(refillTask);
+        }
+    }
+
+    /* ---------- consumer side ---------- */
+
+    /** Takes the next column; read it with the getters below. */
+    public void next() {
+        long h = head.get();
+        long t = tail.getAcquire();
+        if (h == t) {
+            if (!background) {
+                refill();
+            } else {
+                // producer fell behind (should not happen with 64 columns of lead)
+                do {
+                    requestRefill();
+                    Thread.onSpinWait();
+                } while (tail.getAcquire() == h);
+            }
+            t = tail.getAcquire();
+        }
+        int slot = (int) h & mask;
+        curGapY = gapY[slot];
+        curGapSize = gapSize[slot];
+        curCoinY = coinY[slot];
+        curTimerDx = timerDx[slot];
+        curTimerY = timerY[slot];
+        head.setRelease(h + 1); // slot may now be overwritten
+        if (background && t - (h + 1) < CAPACITY / 2) {
+            requestRefill();
+        }
+    }
+
+    public int gapY() { return curGapY; }
+    public int gapSize() { return curGapSize; }
+    /** Coin y, or -1 when the column has no coin. */
+    public int coinY() { return curCoinY; }
+    /** Timer x offset from the column, or -1 when the column has no timer power-up. */
+    public int timerDx() { return curTimerDx; }
+    public int timerY() { return curTimerY; }
+
+    /** Columns generated but not consumed yet. */
+    public int buffered() { return (int) (tail.get() - head.get()); }
+}
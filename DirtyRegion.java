@@ -0,0 +1,110 @@
+/**
+ * Accumulates the screen area that changed since the last frame as a few rectangles.
+ * A rectangle is merged with another only when they overlap or are close and their union
+ * wastes little area, so a bird at the top and a coin at the bottom stay two small
+ * repaints instead of one covering the screen between them. Past MAX_RECTS the two
+ * rectangles whose union wastes least are merged.
+ * Plain ints, so reporting damage every tick allocates nothing.
+ */
+public class DirtyRegion {
+    public static final int MAX_RECTS = 8;
+    private static final int NEAR = 8; // rectangles this close count as touching
+
+    // x1/y1 exclusive; one spare slot for the rectangle being added
+    private final int[] x0 = new int[MAX_RECTS + 1], y0 = new int[MAX_RECTS + 1];
+    private final int[] x1 = new int[MAX_RECTS + 1], y1 = new int[MAX_RECTS + 1];
+    private int count = 0;
+
+    public void add(int x, int y, int w, int h) {
+        if (w <= 0 || h <= 0) return;
+        x0[count] = x;
+        y0[count] = y;
+        x1[count] = x + w;
+        y1[count] = y + h;
+        int added = count++;
+        // a merged rectangle is bigger and may now absorb others
+        for (int i = 0; i < count; i++) {
+            if (i != added && near(i, added) && waste(i, added) * 4 <= unionArea(i, added)) {
+                added = merge(i, added);
+                i = -1;
+            }
+        }
+        if (count > MAX_RECTS) {
+            int bestA = 0, bestB = 1;
+            long best = Long.MAX_VALUE;
+            for (int a = 0; a < count; a++) {
+                for (int b = a + 1; b < count; b++) {
+                    long waste = waste(a, b);
+                    if (waste < best) {
+                        best = waste;
+                        bestA = a;
+                        bestB = b;
+                    }
+                }
+            }
+            merge(bestA, bestB);
+        }
+    }
+
+    public void add(DirtyRegion other) {
+        for (int i = 0; i < other.count; i++) {
+            add(other.x0[i], other.y0[i], other.x1[i] - other.x0[i], other.y1[i] - other.y0[i]);
+        }
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    public boolean isEmpty() { return count == 0; }
+    /** Number of rectangles, at most MAX_RECTS. */
+    public int count() { return count; }
+    public int x(int i) { return x0[i]; }
+    public int y(int i) { return y0[i]; }
+    public int width(int i) { return x1[i] - x0[i]; }
+    public int height(int i) { return y1[i] - y0[i]; }
+
+    /** True when one of the rectangles contains the given one. */
+    public boolean covers(int x, int y, int w, int h) {
+        for (int i = 0; i < count; i++) {
+            if (x >= x0[i] && y >= y0[i] && x + w <= x1[i] && y + h <= y1[i]) return true;
+        }
+        return false;
+    }
+
+    private boolean near(int a, int b) {
+        return x0[a] <= x1[b] + NEAR && x0[b] <= x1[a] + NEAR && y0[a] <= y1[b] + NEAR && y0[b] <= y1[a] + NEAR;
+    }
+
+    private long unionArea(int a, int b) {
+        return (long) (Math.max(x1[a], x1[b]) - Math.min(x0[a], x0[b])) * (Math.max(y1[a], y1[b]) - Math.min(y0[a], y0[b]));
+    }
+
+    /** Area of the union's bounding box that neither rectangle covers. */
+    private long waste(int a, int b) {
+        long overlapW = Math.max(0, Math.min(x1[a], x1[b]) - Math.max(x0[a], x0[b]));
+        long overlapH = Math.max(0, Math.min(y1[a], y1[b]) - Math.max(y0[a], y0[b]));
+        return unionArea(a, b) - area(a) - area(b) + overlapW * overlapH;
+    }
+
+    private long area(int i) {
+        return (long) (x1[i] - x0[i]) * (y1[i] - y0[i]);
+    }
+
+    /** Grows a to cover b and removes b (the last rectangle moves into its slot); returns a's new index. */
+    private int merge(int a, int b) {
+        x0[a] = Math.min(x0[a], x0[b]);
+        y0[a] = Math.min(y0[a], y0[b]);
+        x1[a] = Math.max(x1[a], x1[b]);
+        y1[a] = Math.max(y1[a], y1[b]);
+        int last = --count;
+        if (b != last) {
+            x0[b] = x0[last];
+            y0[b] = y0[last];
+            x1[b] = x1[last];
+            y1[b] = y1[last];
+            if (a == last) a = b;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * Structure-of-arrays storage for everything TubeColumn scrolls: tubes, coins and timers.
+ * - one slot per entity: primitive x/y/w/h/type arrays plus an alive bitset
+ * - slots form a ring in spawn order; entities spawn at the right edge and all scroll at
+ *   the same speed, so the ring is (almost) ordered by x and expired ones leave at the head
+ * - the whole store moves with one column-wide dx, see scroll()
+ * - when entities are added in increasing x (TubeColumn does) the ring is a sorted sweep
+ *   index: firstReaching() finds the entities near an x-range by binary search, so a
+ *   broad-phase query is O(log n + k) with no garbage
+ *
+ * Iterate with: for (int k = 0, n = span(); k < n; k++) { int s = slotAt(k); if (isAlive(s)) ... }
+ * Grows by doubling, so it scales to thousands of entities on screen.
+ */
+public class EntityStore {
+    public static final int TUBE = 0;        // tube body without cap
+    public static final int TUBE_CAPPED = 1; // tube body with the top cap drawn above it
+    public static final int COIN = 2;
+    public static final int TIMER = 3;
+
+    private int[] x, y, w, h, type;
+    private long[] alive;
+    private int mask;
+    private int head = 0, tail = 0; // ring positions; slot = position & mask
+    private int live = 0;
+    private int maxW = 0;          // widest entity ever added, bounds the sweep window
+    private boolean sorted = true; // every add so far came in non-decreasing x
+
+    public EntityStore(int initialCapacity) {
+        int cap = Integer.highestOneBit(Math.max(16, initialCapacity - 1) << 1);
+        allocate(cap);
+    }
+
+    private void allocate(int cap) {
+        x = new int[cap];
+        y = new int[cap];
+        w = new int[cap];
+        h = new int[cap];
+        type = new int[cap];
+        alive = new long[(cap + 63) >>> 6];
+        mask = cap - 1;
+    }
+
+    /** Appends an entity at the tail of the ring and returns its slot. */
+    public int add(int t, int ex, int ey, int ew, int eh) {
+        if (tail - head == mask + 1) grow();
+        if (tail != head && ex < x[(tail - 1) & mask]) sorted = false;
+        if (ew > maxW) maxW = ew;
+        int s = tail++ & mask;
+        x[s] = ex;
+        y[s] = ey;
+        w[s] = ew;
+        h[s] = eh;
+        type[s] = t;
+        alive[s >>> 6] |= 1L << s;
+        live++;
+        return s;
+    }
+
+    /** Marks a slot dead (picked up). The slot is reclaimed once it reaches the head. */
+    public void kill(int s) {
+        long bit = 1L << s;
+        if ((alive[s >>> 6] & bit) != 0) {
+            alive[s >>> 6] &= ~bit;
+            live--;
+        }
+    }
+
+    public boolean isAlive(int s) {
+        return (alive[s >>> 6] & (1L << s)) != 0;
+    }
+
+    /**
+     * Moves every entity left by dx in one pass over the x array, then reclaims slots at
+     * the head that are dead or fully off screen. Returns the number of capped tubes that
+     * scrolled off (one per column).
+     */
+    public int scroll(int dx) {
+        int[] xs = x;
+        for (int k = head; k != tail; k++) {
+            xs[k & mask] -= dx;
+        }
+        int passed = 0;
+        while (head != tail) {
+            int s = head & mask;
+            boolean isAlive = isAlive(s);
+            if (isAlive && xs[s] + w[s] >= 0) break;
+            if (isAlive) {
+                if (type[s] == TUBE_CAPPED) passed++;
+                kill(s);
+            }
+            head++;
+        }
+        return passed;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(alive, 0L);
+        head = tail = live = 0;
+        maxW = 0;
+        sorted = true;
+    }
+
+    /**
+     * First ring position k whose entity can reach right of left (x + w > left); every
+     * position before it ends at or before left. Binary search over the x-sorted ring.
+     * Returns 0 when the store is not sorted, so callers fall back to a full scan.
+     * Scan forward from here and stop at the first x >= the query's right edge
+     * (see isSortedByX()).
+     */
+    public int firstReaching(int left) {
+        if (!sorted) return 0;
+        // x + w > left and w <= maxW  =>  x > left - maxW
+        int key = left - maxW;
+        int lo = 0, hi = tail - head;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (x[(head + mid) & mask] <= key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** True when ring order is x order, i.e. a scan may stop at the first x past a range. */
+    public boolean isSortedByX() { return sorted; }
+
+    private void grow() {
+        int oldCap = mask + 1;
+        int[] ox = x, oy = y, ow = w, oh = h, ot = type;
+        long[] oa = alive;
+        int n = tail - head;
+        allocate(oldCap << 1);
+        // unroll the ring into the new arrays starting at slot 0
+        for (int k = 0; k < n; k++) {
+            int from = (head + k) & (oldCap - 1);
+            x[k] = ox[from];
+            y[k] = oy[from];
+            w[k] = ow[from];
+            h[k] = oh[from];
+            type[k] = ot[from];
+            if ((oa[from >>> 6] & (1L << from)) != 0) alive[k >>> 6] |= 1L << k;
+        }
+        head = 0;
+        tail = n;
+    }
+
+    /** Number of ring positions in use (live + dead not yet reclaimed). */
+    public int span() { return tail - head; }
+    /** Slot of the k-th entity in spawn order, 0 <= k < span(). */
+    public int slotAt(int k) { return (head + k) & mask; }
+    public int size() { return live; }
+    public int capacity() { return mask + 1; }
+
+    public int x(int s) { return x[s]; }
+    public int y(int s) { return y[s]; }
+    public int w(int s) { return w[s]; }
+    public int h(int s) { return h[s]; }
+    public int type(int s) { return type[s]; }
+    public boolean isTube(int s) { return type[s] <= TUBE_CAPPED; }
+}
@@ -0,0 +1,194 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Micro-benchmarks for the hot paths:
+ * - tick:      one GameWorld.tick() at levels 1..10 (bird flown by JumpPolicy.GAP_SEEKER)
+ * - regen:     generating one chunk of (5 + level) column descriptors
+ * - collision: GameWorld.checkCollision() with 10..10000 entities spread over the screen
+ * - frame:     a full GamePanel.renderFrame() into an offscreen BufferedImage
+ *
+ * JMH-style: time-boxed warmup and measurement iterations, results consumed by a sink,
+ * plus allocation per op and GC activity (what JMH's -prof gc reports).
+ *
+ * Usage: java -Djava.awt.headless=true GameBenchmark [name-regex] [-quick]
+ */
+public class GameBenchmark {
+
+    /** One benchmark invocation. Returning a value keeps the JIT from removing the work. */
+    interface Op {
+        long run();
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static long warmupNanos = 1_000_000_000L;
+    private static long measureNanos = 2_000_000_000L;
+    private static final int ITERATIONS = 5;
+    private static long sink;
+
+    public static void main(String[] args) {
+        Pattern filter = Pattern.compile(".*");
+        for (String a : args) {
+            if (a.equals("-quick")) {
+                warmupNanos /= 5;
+                measureNanos /= 5;
+            } else {
+                filter = Pattern.compile(a);
+            }
+        }
+        System.out.printf("%-22s %12s %10s %12s %10s %8s%n", "Benchmark", "ns/op", "+-", "B/op", "MB/s", "gc");
+
+        for (int level = 1; level <= GameWorld.MAX_LEVEL; level++) {
+            run(filter, "tick.level" + level, GameBenchmark::tickOp, level);
+        }
+        for (int level = 1; level <= GameWorld.MAX_LEVEL; level++) {
+            run(filter, "regen.level" + level, GameBenchmark::regenOp, level);
+        }
+        for (int n : new int[] { 10, 100, 1000, 10000 }) {
+            run(filter, "collision.n" + n, GameBenchmark::collisionOp, n);
+        }
+        for (int level : new int[] { 1, 5, 10 }) {
+            run(filter, "frame.level" + level, GameBenchmark::frameOp, level);
+        }
+        if (sink == 42) System.out.println();
+    }
+
+    /* ---------- benchmark bodies ---------- */
+
+    private static Op tickOp(int level) {
+        GameWorld[] w = { new GameWorld(level) };
+        return () -> {
+            GameWorld world = w[0];
+            if (!world.isRunning()) {
+                // dying is part of normal play; restarting keeps the benchmark in steady state
+                world = w[0] = new GameWorld(level);
+            }
+            if (JumpPolicy.GAP_SEEKER.shouldJump(world)) world.jump();
+            world.tick();
+            return world.getTicks();
+        };
+    }
+
+    private static Op regenOp(int level) {
+        LevelGenerator generator = new LevelGenerator(level, 42);
+        ColumnStream stream = new ColumnStream(generator, false);
+        int chunk = generator.getChunkSize();
+        return () -> {
+            long sum = 0;
+            for (int i = 0; i < chunk; i++) {
+                stream.next();
+                sum += stream.gapY();
+            }
+            return sum;
+        };
+    }
+
+    private static Op collisionOp(int entities) {
+        GameWorld world = new GameWorld(1);
+        EntityStore store = world.getTubeColumn().getStore();
+        store.clear();
+        // spread entities evenly over the screen width (in x order, like TubeColumn adds
+        // them) and above/below the bird, so nothing is hit and the store stays intact
+        Bird bird = world.getBird();
+        for (int i = 0; i < entities; i++) {
+            int x = (int) ((long) i * GameWorld.WIDTH / entities);
+            int y = (i & 1) == 0 ? bird.getY() - 100 : bird.getY() + bird.getHeight() + 60;
+            switch (i % 3) {
+                case 0: store.add(EntityStore.TUBE, x, y, 80, 40); break;
+                case 1: store.add(EntityStore.COIN, x, y, 24, 24); break;
+                default: store.add(EntityStore.TIMER, x, y, 28, 28); break;
+            }
+        }
+        return () -> {
+            world.checkCollision();
+            return world.getCoinsCollected();
+        };
+    }
+
+    private static Op frameOp(int level) {
+        GamePanel panel = new GamePanel(false, false); // no progress or run files written
+        panel.startLevel(level);
+        BufferedImage target = GraphicsEnvironment.isHeadless()
+                ? new BufferedImage(GameWorld.WIDTH, GameWorld.HEIGHT, BufferedImage.TYPE_INT_RGB)
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                        .getDefaultConfiguration().createCompatibleImage(GameWorld.WIDTH, GameWorld.HEIGHT);
+        // advance a bit so tubes are on screen
+        for (int i = 0; i < 60; i++) panel.stepSimulation();
+        return () -> {
+            Graphics2D g = target.createGraphics();
+            panel.renderFrame(g, 1f);
+            g.dispose();
+            return target.getRGB(0, 0);
+        };
+    }
+
+    /* ---------- harness ---------- */
+
+    private static void run(Pattern filter, String name, IntFunction<Op> setup, int param) {
+        if (!filter.matcher(name).find()) return;
+        Op op = setup.apply(param);
+        int batch = calibrate(op);
+
+        iterate(op, batch, warmupNanos);
+        double[] nsPerOp = new double[ITERATIONS];
+        long ops = 0, bytes = 0, nanos = 0;
+        long gcCount = gcCount();
+        for (int i = 0; i < ITERATIONS; i++) {
+            long b0 = THREADS.getCurrentThreadAllocatedBytes();
+            long[] r = iterate(op, batch, measureNanos);
+            bytes += THREADS.getCurrentThreadAllocatedBytes() - b0;
+            ops += r[0];
+            nanos += r[1];
+            nsPerOp[i] = r[1] / (double) r[0];
+        }
+        gcCount = gcCount() - gcCount;
+
+        double mean = nanos / (double) ops;
+        double var = 0;
+        for (double v : nsPerOp) var += (v - mean) * (v - mean);
+        double err = Math.sqrt(var / (ITERATIONS - 1));
+        double mbPerSec = bytes / (nanos / 1e9) / (1024 * 1024);
+        System.out.printf("%-22s %12.1f %10.1f %12.1f %10.2f %8d%n",
+                name, mean, err, bytes / (double) ops, mbPerSec, gcCount);
+    }
+
+    /** Picks a batch size so one timed batch takes about 10us, keeping nanoTime() overhead out. */
+    private static int calibrate(Op op) {
+        int batch = 1;
+        while (batch < (1 << 20)) {
+            long t0 = System.nanoTime();
+            for (int i = 0; i < batch; i++) sink += op.run();
+            if (System.nanoTime() - t0 > 10_000L) break;
+            batch <<= 1;
+        }
+        return batch;
+    }
+
+    /** Runs whole batches for about the given time. Returns {ops, nanos}. */
+    private static long[] iterate(Op op, int batch, long budget) {
+        long ops = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < batch; i++) sink += op.run();
+            ops += batch;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < budget);
+        return new long[] { ops, elapsed };
+    }
+
+    private static long gcCount() {
+        long n = 0;
+        List<GarbageCollectorMXBean> gcs = new ArrayList<>(ManagementFactory.getGarbageCollectorMXBeans());
+        for (GarbageCollectorMXBean gc : gcs) n += Math.max(0, gc.getCollectionCount());
+        return n;
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * Base class of everything that moves in the world.
+ * Pure state + integer physics, no AWT: rendering lives in WorldRenderer.
+ */
+public abstract class GameObject {
+    protected int x, y;
+    protected int dx = 0, dy = 0;
+    protected int width, height;
+    // position before the last tick, for interpolated rendering
+    protected int prevX, prevY;
+
+    public GameObject(int x, int y) {
+        this.x = x;
+        this.y = y;
+        this.prevX = x;
+        this.prevY = y;
+    }
+    public int getX(){return x;}
+    public int getY(){return y;}
+    public int getDy(){return dy;}
+    /** Position between the previous and current tick; alpha 1 is the current tick. */
+    public int renderX(float alpha){ return prevX + Math.round((x - prevX) * alpha); }
+    public int renderY(float alpha){ return prevY + Math.round((y - prevY) * alpha); }
+    public int getWidth(){return width;}
+    public int getHeight(){return height;}
+    public void setDx(int dx){ this.dx = dx;}
+    /** Same test as Rectangle.intersects, without allocating Rectangles. */
+    public boolean intersects(int ox, int oy, int ow, int oh) {
+        return width > 0 && height > 0 && ow > 0 && oh > 0
+                && ox < x + width && x < ox + ow
+                && oy < y + height && y < oy + oh;
+    }
+    protected void savePrevious(){ prevX = x; prevY = y; }
+    public abstract void tick();
+}
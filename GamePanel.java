@@ -0,0 +1,670 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.List;
+import javax.swing.ImageIcon;
+import javax.swing.Timer;
+
+/* ---------- Progress data object is handled by ProgressSave.java (external) ---------- */
+
+/* ---------- Image proxy & scaling utilities (keeps your ProxyImage/RealImage idea) ---------- */
+interface IImage {
+    ImageIcon loadImage(int desiredW, int desiredH);
+}
+
+class ProxyImage implements IImage {
+    private final String src;
+    private RealImage realImage;
+
+    public ProxyImage(String src) {
+        this.src = src;
+    }
+
+    @Override
+    public ImageIcon loadImage(int desiredW, int desiredH) {
+        if (realImage == null) {
+            realImage = new RealImage(src);
+        }
+        return realImage.loadImage(desiredW, desiredH);
+    }
+}
+
+class RealImage implements IImage {
+    private final String src;
+
+    public RealImage(String src) {
+        this.src = src;
+    }
+
+    @Override
+    public ImageIcon loadImage(int desiredW, int desiredH) {
+        // decoding + scaling is shared process-wide, see SpriteCache
+        return new ImageIcon(SpriteCache.shared().get(src, desiredW, desiredH));
+    }
+}
+
+/* ---------- World model (GameWorld, TubeColumn, EntityStore, Bird) lives in its own AWT-free files ---------- */
+
+/* ---------- Controller (space to jump) ---------- */
+class Controller {
+    /** In-game action for a key (see InputQueue), 0 when the key is not a gameplay input. */
+    public int action(KeyEvent kevent) {
+        return kevent.getKeyCode() == KeyEvent.VK_SPACE ? InputQueue.JUMP : 0;
+    }
+
+    public void apply(GameWorld world, int action) {
+        if (action == InputQueue.JUMP) world.jump();
+    }
+}
+
+/* ---------- Game Panel (main) ---------- */
+class GamePanel extends JPanel implements ActionListener {
+    private static final long serialVersionUID = 1L;
+
+    // fonts and colours are immutable, so the menu reuses them every frame
+    private static final Font TITLE_FONT = new Font("MV Boli", Font.BOLD, 40);
+    private static final Font MENU_FONT = new Font("MV Boli", Font.PLAIN, 22);
+    private static final Font BUTTON_FONT = new Font("MV Boli", Font.BOLD, 20);
+    private static final Font HINT_FONT = new Font("MV Boli", Font.PLAIN, 14);
+    private static final Color MENU_SHADE = new Color(0,0,0,140);
+
+    private boolean isRunning = false;
+    private ProxyImage bgProxy;
+    private Image background;
+    private ParallaxBackground parallax; // background bands scrolling with the tubes
+    private GameWorld world; // the level being played; all rules live there
+    private final WorldRenderer worldRenderer = new WorldRenderer();
+    private final HudLayer hud = new HudLayer();
+    private final DirtyRegion damage = new DirtyRegion();
+    private final DirtyRegion backgroundDamage = new DirtyRegion(); // parallax bands, see actionPerformed
+    private final Rectangle[] damaged = new Rectangle[2 * DirtyRegion.MAX_RECTS];
+    private long batchNanos = -1; // render time of the damaged rectangles painted so far, -1 outside a batch
+    private final PerfMonitor perf = new PerfMonitor(); // F3 overlay
+    private final ScaledView view = new ScaledView();
+    private final QualityGovernor quality = new QualityGovernor(PerfMonitor.BUDGET_NANOS);
+    // set when the whole screen must be redrawn (menu <-> level); see markChanged()
+    private boolean stateChanged = true;
+    private int highScore = 0;
+    private int coins = 0;
+    private Timer gameTimer;
+    private Controller controller;
+    // gameplay input from the EDT, applied at the next tick boundary (see stepSimulation)
+    private final InputQueue input = new InputQueue(64);
+    private final InputQueue.Sink applyInput = this::applyInput;
+    private long levelStartNanos;
+    // press times of inputs applied but not yet on screen, for the input-to-present latency
+    private final long[] unpresented = new long[64];
+    private int unpresentedCount = 0;
+    private int currentLevel = 1;
+    private ProgressSave.Progress progress;
+    // false for a panel that must not touch any file (GameBenchmark)
+    private final boolean persistent;
+    // seed and jumps of the current run, written out when it ends (see ReplayRunner)
+    private RunRecording recording;
+    // recorded runs raced in the current level; see GhostLayer. Loaded in the background
+    // when G is turned on or a level box is pressed, and kept per level
+    private boolean raceGhosts = false;
+    private GhostLayer ghosts;
+    private final Map<Integer, CompletableFuture<GhostLayer>> ghostLoads = new HashMap<>();
+    private static final Path LAST_RUN = Paths.get("last-run.rpl");
+    // run history for difficulty tuning (see TelemetryReader); opened when the first level starts
+    private static final int TELEMETRY_SAMPLE_TICKS = 200;
+    private TelemetryLog telemetry;
+    private boolean telemetryOpened = false;
+    private int runFrames = 0;
+    // per-level bests and ranks (see Leaderboard); opened in the background at construction,
+    // the menu shows the bests once it is ready. Holds null when there is none
+    private static final Path LEADERBOARD = Paths.get("leaderboard.dat");
+    private final CompletableFuture<Leaderboard> leaderboard;
+    private volatile String lastRank = null; // shown on the menu after a run
+    private long slowestFrameNanos = 0;
+
+    // interface states
+    private boolean onMenu = true;
+
+    // component that is actually shown: this panel, or the Canvas in active-render mode
+    private Component surface = this;
+    private final GameKeyAdapter keyAdapter = new GameKeyAdapter();
+
+    public GamePanel() {
+        this(true);
+    }
+
+    /**
+     * @param swingTimer drive the game from a Swing Timer on the EDT; pass false when an
+     *                   ActiveRenderLoop calls stepSimulation/renderFrame instead
+     */
+    public GamePanel(boolean swingTimer) {
+        this(swingTimer, true);
+    }
+
+    /**
+     * @param persistent load and save progress, recordings, telemetry and the leaderboard;
+     *                   when false the panel starts from default progress and writes nothing
+     */
+    GamePanel(boolean swingTimer, boolean persistent) {
+        this.persistent = persistent;
+        setPreferredSize(new Dimension(GameLauncher.WIDTH, GameLauncher.HEIGHT));
+        setFocusable(true);
+        setDoubleBuffered(true);
+        controller = new Controller();
+        addKeyListener(keyAdapter);
+        // load progress
+        progress = persistent ? ProgressSave.load() : new ProgressSave.Progress();
+        this.coins = progress.coins;
+        this.highScore = progress.highScore;
+        this.currentLevel = Math.min(progress.unlockedLevel, 10);
+
+        bgProxy = new ProxyImage("background.jpg");
+        background = bgProxy.loadImage(GameLauncher.WIDTH, GameLauncher.HEIGHT).getImage();
+        parallax = new ParallaxBackground(background);
+
+        if (swingTimer) {
+            gameTimer = new Timer(GameWorld.TICK_MS, this);
+            gameTimer.start();
+        }
+        // opening may create and size the file: not on the paint path
+        leaderboard = persistent
+                ? CompletableFuture.supplyAsync(() -> Leaderboard.open(LEADERBOARD))
+                : CompletableFuture.completedFuture(null);
+        leaderboard.thenRun(this::markChanged); // show the bests
+    }
+
+    /** Routes input to and renders onto another component (the active-render Canvas). */
+    void attachSurface(Component c) {
+        this.surface = c;
+        c.addKeyListener(keyAdapter);
+    }
+
+    void startLevel(int level) {
+        this.currentLevel = level;
+        this.isRunning = true;
+        this.onMenu = false;
+        // upcoming columns are generated off the game thread
+        long seed = new Random().nextLong();
+        // ghosts still loading are left out of this run
+        this.ghosts = raceGhosts ? loadGhosts(level).getNow(null) : null;
+        if (ghosts != null) ghosts.restart();
+        if (ghosts != null && !ghosts.isEmpty()) seed = ghosts.getSeed(); // same layout as the ghosts
+        this.world = new GameWorld(level, seed, true, SpriteMasks.shared());
+        world.setProfiling(perf.isEnabled());
+        this.recording = new RunRecording(level, seed, true);
+        telemetry(); // mapped here, not by the first sample in the middle of the run
+        this.runFrames = 0;
+        this.slowestFrameNanos = 0;
+        this.levelStartNanos = System.nanoTime();
+        this.unpresentedCount = 0;
+        markChanged();
+    }
+
+    private void backToMenu() {
+        if (isRunning) {
+            // coins picked up so far are kept
+            coins += world.getCoinsCollected();
+            saveRecording();
+            logRun();
+            rankRun();
+        }
+        this.isRunning = false;
+        this.onMenu = true;
+        // save progress
+        progress.coins = coins;
+        if (highScore > progress.highScore) progress.highScore = highScore;
+        progress.unlockedLevel = Math.max(progress.unlockedLevel, currentLevel);
+        saveProgress();
+        markChanged();
+    }
+
+    private void endGame() {
+        this.isRunning = false;
+        coins += world.getCoinsCollected();
+        saveRecording();
+        logRun();
+        rankRun();
+        if (world.getPoints() > highScore) {
+            this.highScore = world.getPoints();
+        }
+        // unlock next level if passed and not max
+        if (world.isPassed()) {
+            progress.unlockedLevel = Math.max(progress.unlockedLevel, Math.min(GameWorld.MAX_LEVEL, currentLevel + 1));
+        }
+        progress.coins = coins;
+        progress.highScore = highScore;
+        saveProgress();
+        // show menu
+        onMenu = true;
+        markChanged();
+    }
+
+    private void saveProgress() {
+        if (persistent) ProgressSave.save(progress);
+    }
+
+    private void saveRecording() {
+        RunRecording r = recording;
+        r.finish(world);
+        if (!persistent) return;
+        GhostLayer.saveIfBest(GhostLayer.DIR, r).thenAccept(saved -> {
+            if (!saved) return;
+            synchronized (this) { // a new best: the level's ghosts change
+                ghostLoads.remove(r.getLevel());
+                if (raceGhosts) loadGhosts(r.getLevel());
+            }
+        });
+        // off the game thread, like ProgressSave
+        CompletableFuture.runAsync(() -> {
+            try {
+                r.write(LAST_RUN);
+            } catch (Exception e) {
+                System.err.println("Error saving recording: " + e.getMessage());
+            }
+        });
+    }
+
+    /** The level's ghosts, loading in the background unless already loaded or loading. */
+    private CompletableFuture<GhostLayer> loadGhosts(int level) {
+        return ghostLoads.computeIfAbsent(level, l -> GhostLayer.loadAsync(GhostLayer.DIR, l));
+    }
+
+    private TelemetryLog telemetry() {
+        if (!telemetryOpened && persistent) {
+            telemetry = TelemetryLog.open(Paths.get("telemetry"));
+            telemetryOpened = true;
+        }
+        return telemetry;
+    }
+
+    private void logRun() {
+        TelemetryLog log = telemetry();
+        if (log != null) log.run(world, recording.getSeed(), runFrames, (int) (slowestFrameNanos / 1000));
+    }
+
+    /** Adds the run to the leaderboard, once it is open if it is still opening. */
+    private void rankRun() {
+        int level = currentLevel, points = world.getPoints(), coins = world.getCoinsCollected();
+        int ticks = world.getTicks();
+        long millis = System.currentTimeMillis();
+        leaderboard.thenAccept(board -> {
+            if (board == null) return;
+            int rank = board.add(level, points, coins, ticks, millis);
+            lastRank = "Last run: " + points + " points, #" + rank + " of " + board.runs(level)
+                    + " on level " + level;
+            markChanged();
+        });
+    }
+
+    /** Requests a full redraw and wakes an idle frame loop. */
+    private synchronized void markChanged() {
+        stateChanged = true;
+        notifyAll();
+        if (gameTimer != null && !gameTimer.isRunning()) gameTimer.start();
+    }
+
+    /** Returns whether a full redraw was requested since the last call, and clears it. */
+    synchronized boolean consumeStateChange() {
+        boolean changed = stateChanged;
+        stateChanged = false;
+        return changed;
+    }
+
+    /** True while nothing on screen animates (the menu). */
+    synchronized boolean isIdle() {
+        return !isRunning;
+    }
+
+    /** Blocks for up to timeoutMillis while idle and no redraw was requested. */
+    synchronized void awaitChange(long timeoutMillis) throws InterruptedException {
+        if (isIdle() && !stateChanged) wait(timeoutMillis);
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        Toolkit.getDefaultToolkit().sync();
+        stepSimulation();
+        int rects = 0;
+        synchronized (this) {
+            boolean full = consumeStateChange();
+            if (isRunning) {
+                // only the rectangles of what moved or changed get repainted
+                damage.clear();
+                backgroundDamage.clear();
+                parallax.addDamage(backgroundScroll(1f), backgroundDamage);
+                worldRenderer.addDamage(world, damage);
+                if (ghosts != null && quality.decorations()) ghosts.addDamage(world.getTicks(), damage);
+                updateHud(damage);
+                if (perf.isVisible()) damage.add(PerfMonitor.X, PerfMonitor.Y, PerfMonitor.W, PerfMonitor.H);
+                if (!full) {
+                    // scrolled bands are repainted whole; world damage inside them needs nothing more
+                    for (int i = 0; i < backgroundDamage.count(); i++) {
+                        damaged[rects++] = ScaledView.toSurface(backgroundDamage.x(i), backgroundDamage.y(i),
+                                backgroundDamage.width(i), backgroundDamage.height(i), this);
+                    }
+                    for (int i = 0; i < damage.count(); i++) {
+                        int x = damage.x(i), y = damage.y(i), w = damage.width(i), h = damage.height(i);
+                        if (!backgroundDamage.covers(x, y, w, h)) damaged[rects++] = ScaledView.toSurface(x, y, w, h, this);
+                    }
+                }
+            } else if (!full && gameTimer != null) {
+                // static menu: stop ticking until markChanged() restarts the timer
+                gameTimer.stop();
+            }
+            if (full) repaint();
+        }
+        if (rects > 0 && isShowing()) paintDamaged(rects);
+    }
+
+    /**
+     * Paints each damaged rectangle on its own right away. repaint() would do, but the
+     * RepaintManager unions everything queued for a component into one rectangle again.
+     */
+    private void paintDamaged(int rects) {
+        batchNanos = 0;
+        for (int i = 0; i < rects; i++) paintImmediately(damaged[i]);
+        long nanos = batchNanos;
+        batchNanos = -1;
+        frameRendered(nanos);
+        framePresented();
+    }
+
+    private void updateHud(DirtyRegion damage) {
+        hud.update(world.getPoints(), currentLevel, coins + world.getCoinsCollected(),
+                highScore, (int) world.getTimeLeftSeconds(), damage);
+    }
+
+    /**
+     * Advances the game by exactly one GameWorld.TICK_MS step. The level countdown is part
+     * of this clock, so gameplay speed is the same whatever the frame rate is.
+     */
+    synchronized void stepSimulation() {
+        input.drain(applyInput);
+        if (!isRunning) return;
+        if (perf.isEnabled()) {
+            PerfEvents.Tick event = new PerfEvents.Tick();
+            event.begin();
+            long t0 = System.nanoTime();
+            world.tick();
+            long nanos = System.nanoTime() - t0;
+            event.level = currentLevel;
+            event.tick = world.getTicks();
+            event.entities = world.getTubeColumn().getStore().size();
+            event.commit();
+            perf.recordTick(nanos, world);
+        } else {
+            world.tick();
+        }
+        if (!world.isRunning()) {
+            endGame();
+        } else if (telemetry != null && world.getTicks() % TELEMETRY_SAMPLE_TICKS == 0) {
+            telemetry.sample(world, recording.getSeed());
+        }
+    }
+
+    private void applyInput(int action, long nanos) {
+        // presses made on the menu or before this level started are dropped
+        if (!isRunning || nanos - levelStartNanos < 0 || !world.isRunning()) return;
+        if (action == InputQueue.JUMP) recording.jump(world.getTicks());
+        controller.apply(world, action);
+        if (unpresentedCount < unpresented.length) unpresented[unpresentedCount++] = nanos;
+    }
+
+    /** When the key was pressed on the nanoTime clock, including its wait in the EDT queue. */
+    private static long inputTime(KeyEvent e) {
+        long now = System.nanoTime();
+        long queuedMillis = System.currentTimeMillis() - e.getWhen();
+        // a stamp from some other clock would give nonsense; fall back to now
+        return queuedMillis > 0 && queuedMillis < 1000 ? now - queuedMillis * 1_000_000L : now;
+    }
+
+    /**
+     * Called once the frame just rendered has been handed to the screen; every applied
+     * input it shows gets its press-to-present latency recorded (see PerfMonitor).
+     */
+    synchronized void framePresented() {
+        if (unpresentedCount == 0) return;
+        if (perf.isEnabled()) {
+            long now = System.nanoTime();
+            for (int i = 0; i < unpresentedCount; i++) perf.recordInput(now - unpresented[i]);
+        }
+        unpresentedCount = 0;
+    }
+
+    @Override
+    public void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        // logical frame into the back buffer, then one scaled blit to the panel
+        long nanos = view.render((Graphics2D) g, getWidth(), getHeight(), g.getClipBounds(), getGraphicsConfiguration(), this, 1f);
+        if (batchNanos >= 0) {
+            batchNanos += nanos; // reported with the rest of the frame, see paintDamaged
+        } else {
+            frameRendered(nanos);
+            framePresented();
+        }
+    }
+
+    /**
+     * Draws the current state. alpha in [0,1] interpolates moving objects between the
+     * previous and the current simulation step (always 1 with the Swing timer).
+     */
+    synchronized void renderFrame(Graphics2D g2, float alpha) {
+        PerfEvents.Paint event = null;
+        if (perf.isEnabled()) {
+            event = new PerfEvents.Paint();
+            event.begin();
+        }
+        parallax.render(g2, backgroundScroll(alpha));
+
+        if (onMenu) {
+            drawMenu(g2);
+        } else if (isRunning) {
+            if (ghosts != null && quality.decorations()) ghosts.render(g2, world.getTicks(), alpha);
+            worldRenderer.render(g2, world, surface.getGraphicsConfiguration(), surface, alpha);
+            // draw HUD: points from tubeColumn, coins, level, timer, highscore
+            updateHud(null);
+            hud.render(g2);
+        } else {
+            // game not running but not menu (rare), show prompt
+            g2.setColor(Color.black);
+            g2.setFont(TITLE_FONT);
+            g2.drawString("Press Enter to Start", GameLauncher.WIDTH/2 - 240, GameLauncher.HEIGHT/2);
+        }
+        perf.draw(g2);
+        if (event != null) {
+            event.inGame = isRunning;
+            event.commit();
+        }
+    }
+
+    /** Background scroll position: still on the menu and at reduced quality. */
+    private int backgroundScroll(float alpha) {
+        if (!isRunning || !quality.decorations()) return 0;
+        TubeColumn column = world.getTubeColumn();
+        return column.getScrolled() - column.renderOffset(alpha);
+    }
+
+    /**
+     * Render time of a whole frame, all of its damaged rectangles and blits included (see
+     * ScaledView); feeds the overlay, the run's telemetry and the QualityGovernor.
+     */
+    synchronized void frameRendered(long nanos) {
+        if (perf.isEnabled()) perf.recordFrame(nanos);
+        if (!isRunning) return;
+        runFrames++;
+        slowestFrameNanos = Math.max(slowestFrameNanos, nanos);
+        if (!quality.record(nanos, ScaledView.isScaled(surface.getWidth(), surface.getHeight()))) return;
+        worldRenderer.setDrawCaps(quality.caps());
+        markChanged(); // the next frame is drawn whole at the new level
+    }
+
+    synchronized boolean smoothScaling() {
+        return quality.smoothScaling();
+    }
+
+    private void drawMenu(Graphics2D g2) {
+        g2.setColor(MENU_SHADE);
+        g2.fillRect(0, 0, GameLauncher.WIDTH, GameLauncher.HEIGHT);
+        g2.setColor(Color.white);
+        g2.setFont(TITLE_FONT);
+        g2.drawString("Flappy - Levels", GameLauncher.WIDTH/2 - 160, 80);
+
+        g2.setFont(MENU_FONT);
+        g2.drawString("Coins: " + coins, 30, 140);
+        g2.drawString("High Score: " + highScore, 30, 170);
+
+        // Exit button (drawn)
+        g2.setColor(Color.lightGray);
+        g2.fillRoundRect(GameLauncher.WIDTH - 140, GameLauncher.HEIGHT - 70, 120, 40, 10, 10);
+        g2.setColor(Color.black);
+        g2.setFont(BUTTON_FONT);
+        g2.drawString("Exit", GameLauncher.WIDTH - 90, GameLauncher.HEIGHT - 42);
+
+        // Level grid 1..10
+        int cols = 5;
+        int rows = 2;
+        int startX = 120;
+        int startY = 140;
+        int boxW = 110;
+        int boxH = 70;
+        int gap = 20;
+
+        Leaderboard board = leaderboard.getNow(null); // no bests until it is open
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int idx = r*cols + c + 1;
+                int x = startX + c*(boxW + gap);
+                int y = startY + r*(boxH + gap);
+                // locked?
+                boolean locked = idx > progress.unlockedLevel;
+                // draw background box
+                g2.setColor(locked ? Color.darkGray : Color.white);
+                g2.fillRoundRect(x, y, boxW, boxH, 12, 12);
+                g2.setColor(locked ? Color.gray : Color.black);
+                g2.drawRoundRect(x, y, boxW, boxH, 12, 12);
+                g2.setColor(locked ? Color.lightGray : Color.black);
+                g2.setFont(BUTTON_FONT);
+                g2.drawString("Level " + idx, x + 15, y + 40);
+                int best = board == null ? -1 : board.bestPoints(idx);
+                if (best >= 0) {
+                    g2.setFont(HINT_FONT);
+                    g2.drawString("Best: " + best, x + 15, y + 60);
+                }
+            }
+        }
+
+        // Instructions
+        g2.setColor(Color.white);
+        g2.setFont(HINT_FONT);
+        g2.drawString("Click a level to play. You must finish lower levels to unlock higher ones.", 100, 340);
+        g2.drawString("In-game: SPACE to jump. Collect coins and timer power-ups.", 100, 360);
+        g2.drawString("G: race your best run's ghost (and any runs in " + GhostLayer.DIR + "/) - "
+                + (raceGhosts ? "on" : "off"), 100, 380);
+        if (lastRank != null) g2.drawString(lastRank, 100, 410);
+
+        // detect mouse over for clicks - add a listener
+        // ensure listener added once
+        if (mouseListenerAdded == false) {
+            addMenuMouseListener(startX, startY, boxW, boxH, gap, cols, rows);
+            mouseListenerAdded = true;
+        }
+    }
+
+    private boolean mouseListenerAdded = false;
+
+    private void addMenuMouseListener(int startX, int startY, int boxW, int boxH, int gap, int cols, int rows) {
+        surface.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                // the click starts the level on release: load its ghosts meanwhile
+                int level = levelAt(ScaledView.toLogical(e.getPoint(), surface));
+                synchronized (GamePanel.this) {
+                    if (level > 0 && level <= progress.unlockedLevel && onMenu && raceGhosts) loadGhosts(level);
+                }
+            }
+
+            private int levelAt(Point p) {
+                for (int r = 0; r < rows; r++) {
+                    for (int c = 0; c < cols; c++) {
+                        Rectangle rect = new Rectangle(startX + c*(boxW + gap), startY + r*(boxH + gap), boxW, boxH);
+                        if (rect.contains(p)) return r*cols + c + 1;
+                    }
+                }
+                return 0;
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                Point p = ScaledView.toLogical(e.getPoint(), surface);
+                // check exit click area
+                Rectangle exitRect = new Rectangle(GameLauncher.WIDTH - 140, GameLauncher.HEIGHT - 70, 120, 40);
+                if (exitRect.contains(p)) {
+                    // save and exit
+                    synchronized (GamePanel.this) {
+                        progress.coins = coins;
+                        progress.highScore = highScore;
+                        progress.unlockedLevel = Math.max(progress.unlockedLevel, currentLevel);
+                        saveProgress();
+                    }
+                    System.exit(0);
+                }
+
+                // check level boxes
+                int idx = levelAt(p);
+                if (idx > 0) {
+                    if (idx <= progress.unlockedLevel) {
+                        // start game at this level
+                        synchronized (GamePanel.this) {
+                            startLevel(idx);
+                        }
+                    } else {
+                        // locked: small feedback
+                        JOptionPane.showMessageDialog(surface, "Level " + idx + " is locked. Finish earlier levels first.");
+                    }
+                }
+            }
+        });
+    }
+
+    class GameKeyAdapter extends KeyAdapter {
+        @Override
+        public void keyPressed(KeyEvent e) {
+            int action = controller.action(e);
+            if (action != 0) {
+                // lock-free, so a press never waits for a frame being rendered
+                input.offer(action, inputTime(e));
+                return;
+            }
+            // the active-render loop ticks on its own thread
+            synchronized (GamePanel.this) {
+                if (e.getKeyCode() == KeyEvent.VK_F3) {
+                    perf.toggle();
+                    if (world != null) world.setProfiling(perf.isEnabled());
+                    markChanged();
+                    return;
+                }
+                if (onMenu) {
+                    // Enter starts the currently selected level if unlocked
+                    if (e.getKeyCode() == KeyEvent.VK_ENTER) {
+                        startLevel(currentLevel);
+                    } else if (e.getKeyCode() == KeyEvent.VK_G) {
+                        raceGhosts = !raceGhosts;
+                        if (raceGhosts) loadGhosts(currentLevel);
+                        markChanged();
+                    }
+                } else {
+                    if (e.getKeyCode() == KeyEvent.VK_ESCAPE) {
+                        // go back to menu and save
+                        backToMenu();
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void keyReleased(KeyEvent e) {
+            // nothing
+        }
+    }
+}
@@ -0,0 +1,192 @@
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One level being played, without any Swing/AWT dependency:
+ * bird physics, TubeColumn generation, collision, scoring, coin and timer pickup
+ * and the level countdown. GamePanel only feeds input in and draws the result,
+ * so the same rules can be ticked headless (bots, replays, regression runs).
+ */
+public class GameWorld {
+
+    /** Logical world size; physics and generation never look at the window. */
+    public static final int WIDTH = 900;
+    public static final int HEIGHT = 600;
+    /** Simulated time per tick. */
+    public static final int TICK_MS = 15;
+    public static final int BIRD_W = 48, BIRD_H = 36; // resized bird
+    public static final int MAX_LEVEL = 10;
+
+    public enum Outcome { RUNNING, HIT_TUBE, TIME_UP }
+
+    private final int level;
+    private final long seed;
+    private final Bird bird;
+    private final TubeColumn tubeColumn;
+    private final CollisionMasks masks; // null: bounding boxes only
+    // masks for the standard sizes, looked up once so the narrow phase never allocates
+    private final CollisionMask birdMask, bodyMask, capMask, coinMask, timerMask;
+    private int ticks = 0;
+    private int coinsCollected = 0;
+    private long timeLeftMillis; // counted down in simulation time
+    private boolean timerFrozen = false; // when timer power-up collected, we add time
+    private Outcome outcome = Outcome.RUNNING;
+    // when set, checkCollision is timed and reported to JFR (see PerfMonitor)
+    private boolean profiling = false;
+    private long collisionNanos = 0;
+
+    /** Random layout, columns generated inline, bounding-box collision (headless use). */
+    public GameWorld(int level) {
+        this(level, ThreadLocalRandom.current().nextLong(), false, null);
+    }
+
+    /**
+     * @param seed                 level layout seed
+     * @param backgroundGeneration stream upcoming columns from the background generator thread
+     * @param masks                sprite masks for pixel-accurate collision, null for
+     *                             bounding boxes only (tube caps then never collide)
+     */
+    public GameWorld(int level, long seed, boolean backgroundGeneration, CollisionMasks masks) {
+        this.level = level;
+        this.seed = seed;
+        this.bird = new Bird(WIDTH / 2, HEIGHT / 2, BIRD_W, BIRD_H);
+        this.tubeColumn = new TubeColumn(level, seed, backgroundGeneration);
+        this.timeLeftMillis = levelTimeMillis(level);
+        this.masks = masks;
+        this.birdMask = masks == null ? null : masks.bird(BIRD_W, BIRD_H);
+        this.bodyMask = masks == null ? null : masks.tubeBody(LevelGenerator.TUBE_WIDTH);
+        this.capMask = masks == null ? null : masks.tubeCap(LevelGenerator.TUBE_WIDTH);
+        this.coinMask = masks == null ? null : masks.coin(LevelGenerator.COIN_SIZE, LevelGenerator.COIN_SIZE);
+        this.timerMask = masks == null ? null : masks.timer(LevelGenerator.TIMER_SIZE, LevelGenerator.TIMER_SIZE);
+    }
+
+    /** Time available for a level: higher levels get shorter time. */
+    public static long levelTimeMillis(int level) {
+        return Math.max(15, 60 - level*3) * 1000L;
+    }
+
+    /** Points (tube cycles survived) needed to unlock the next level. */
+    public static int requiredPointsToPass(int level) {
+        // simple threshold per level (can be tuned)
+        return 3 + level; // pass after collecting (or surviving) some tube cycles
+    }
+
+    public void jump() {
+        if (outcome == Outcome.RUNNING) bird.jump();
+    }
+
+    /** Advances the level by exactly one TICK_MS step. Does nothing once the run is over. */
+    public void tick() {
+        if (outcome != Outcome.RUNNING) return;
+        bird.tick();
+        tubeColumn.tick();
+        if (profiling) {
+            PerfEvents.Collision event = new PerfEvents.Collision();
+            event.begin();
+            long t0 = System.nanoTime();
+            checkCollision();
+            collisionNanos = System.nanoTime() - t0;
+            event.entities = tubeColumn.getStore().size();
+            event.commit();
+        } else {
+            checkCollision();
+        }
+        ticks++;
+        if (outcome == Outcome.RUNNING && !timerFrozen) {
+            timeLeftMillis -= TICK_MS;
+            if (timeLeftMillis <= 0) {
+                // time over -> end level
+                outcome = Outcome.TIME_UP;
+            }
+        }
+    }
+
+    /**
+     * Broad phase: only entities whose x-range can overlap the bird's are visited, found by
+     * binary search in the x-sorted EntityStore (O(log n + k), no allocation). Each of those
+     * gets a plain interval test, and only when that hits, the pixel masks are compared.
+     */
+    void checkCollision() {
+        EntityStore store = tubeColumn.getStore();
+        int left = bird.getX(), right = left + bird.getWidth();
+        boolean sorted = store.isSortedByX();
+        for (int k = store.firstReaching(left), n = store.span(); k < n; k++) {
+            int s = store.slotAt(k);
+            int ex = store.x(s);
+            if (ex >= right) {
+                if (sorted) break; // everything further right starts past the bird
+                continue;
+            }
+            if (!store.isAlive(s)) continue;
+            int type = store.type(s);
+            int ey = store.y(s), ew = store.w(s), eh = store.h(s);
+            if (type == EntityStore.TUBE_CAPPED && hitsCap(ex, ey, ew, eh)) {
+                outcome = Outcome.HIT_TUBE;
+                return;
+            }
+            if (!bird.intersects(ex, ey, ew, eh) || !pixelsTouch(type, ex, ey, ew, eh)) continue;
+            switch (type) {
+                case EntityStore.COIN:
+                    store.kill(s);
+                    coinsCollected += 1;
+                    break;
+                case EntityStore.TIMER:
+                    store.kill(s);
+                    // add time bonus
+                    timeLeftMillis += 8000; // add seconds
+                    timerFrozen = false;
+                    break;
+                default:
+                    // check tube collision
+                    outcome = Outcome.HIT_TUBE;
+                    return;
+            }
+        }
+    }
+
+    /** Narrow phase after the boxes intersect; true without masks. */
+    private boolean pixelsTouch(int type, int x, int y, int w, int h) {
+        if (birdMask == null) return true;
+        CollisionMask m;
+        switch (type) {
+            case EntityStore.COIN:
+                m = (w == LevelGenerator.COIN_SIZE && h == w) ? coinMask : masks.coin(w, h);
+                break;
+            case EntityStore.TIMER:
+                m = (w == LevelGenerator.TIMER_SIZE && h == w) ? timerMask : masks.timer(w, h);
+                break;
+            default:
+                m = w == LevelGenerator.TUBE_WIDTH ? bodyMask : masks.tubeBody(w);
+                break;
+        }
+        return m == null || CollisionMask.overlaps(birdMask, bird.getX(), bird.getY(), bird.getWidth(), bird.getHeight(), m, x, y, w, h);
+    }
+
+    /** The cap drawn above a top tube; only collides when its sprite (mask) exists. */
+    private boolean hitsCap(int x, int y, int w, int h) {
+        if (birdMask == null) return false;
+        int capH = TubeColumn.CAP_HEIGHT;
+        int capY = y - capH + TubeColumn.CAP_OVERLAP;
+        if (!bird.intersects(x, capY, w, capH)) return false;
+        CollisionMask cap = w == LevelGenerator.TUBE_WIDTH ? capMask : masks.tubeCap(w);
+        return cap != null && CollisionMask.overlaps(birdMask, bird.getX(), bird.getY(), bird.getWidth(), bird.getHeight(), cap, x, capY, w, capH);
+    }
+
+    public boolean isRunning() { return outcome == Outcome.RUNNING; }
+    public Outcome getOutcome() { return outcome; }
+    public boolean isPassed() { return getPoints() >= requiredPointsToPass(level); }
+
+    public int getLevel() { return level; }
+    /** Layout seed; a new GameWorld with the same level and seed has the same columns. */
+    public long getSeed() { return seed; }
+    public Bird getBird() { return bird; }
+    public TubeColumn getTubeColumn() { return tubeColumn; }
+    public int getPoints() { return tubeColumn.getPoints(); }
+    public int getTicks() { return ticks; }
+    public int getCoinsCollected() { return coinsCollected; }
+    public long getTimeLeftMillis() { return timeLeftMillis; }
+    public void setProfiling(boolean on) { profiling = on; }
+    /** Duration of the last checkCollision() while profiling. */
+    public long getCollisionNanos() { return collisionNanos; }
+    /** Whole seconds left, rounded up like a countdown display. */
+    public long getTimeLeftSeconds() { return Math.max(0, (timeLeftMillis + 999) / 1000); }
+}
@@ -0,0 +1,244 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Recorded runs raced as translucent ghost birds.
+ * - a RunRecording is turned into a Track once at load: the bird's y after every tick,
+ *   from Bird's own rules and the recorded jumps. Nothing else is simulated, since the
+ *   bird's path does not depend on the tubes; the track just ends where the run did
+ * - the DRAWN best runs still flying are drawn as faded birds at their exact positions.
+ *   Filling translucent pixels is what costs here, so the rest of a big crowd is shown
+ *   as short marks on a narrow strip left of the birds, denser where more ghosts are.
+ *   The strip is one small image rewritten in place and drawn with a single blit, so
+ *   hundreds of ghosts cost little more than DRAWN
+ *
+ * Ghosts are the *.rpl files in DIR; the player's best run per level is kept there as
+ * best-level-N.rpl, and imported recordings can simply be dropped next to it.
+ */
+public class GhostLayer {
+    public static final Path DIR = Paths.get("ghosts");
+    private static final int DRAWN = 8;
+    private static final float OPACITY = 0.35f;
+    private static final int X = GameWorld.WIDTH / 2 - GameWorld.BIRD_W / 2;
+    private static final int STRIP_W = 6, STRIP_X = X - STRIP_W - 4;
+    private static final int MARK_H = 3, MARK_ALPHA = 64; // each mark adds this much alpha
+
+    // best runs are written and ghosts loaded one at a time, off the game thread; a load
+    // queued after a write therefore sees the new best
+    private static final ExecutorService io = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ghost-io");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Bird position stream of one recorded run: 2 bytes per tick. */
+    private static final class Track {
+        final int ticks;
+        final short[] ys; // ys[t] = bird y after t ticks
+
+        Track(RunRecording r) {
+            ticks = r.getTicks();
+            ys = new short[ticks + 1];
+            Bird bird = new Bird(GameWorld.WIDTH / 2, GameWorld.HEIGHT / 2, GameWorld.BIRD_W, GameWorld.BIRD_H);
+            ys[0] = (short) bird.getY();
+            // jumps are applied before the tick they were recorded at, as in ReplayRunner
+            for (int t = 0, next = 0; t < ticks; t++) {
+                while (next < r.getJumpCount() && r.getJump(next) <= t) {
+                    bird.jump();
+                    next++;
+                }
+                bird.tick();
+                ys[t + 1] = (short) bird.getY();
+            }
+        }
+
+        /** y at the given world tick, interpolated like Bird.renderY; -1 once the run has ended. */
+        int y(int tick, float alpha) {
+            if (tick > ticks) return -1;
+            if (tick == 0) return ys[0];
+            int prev = ys[tick - 1];
+            return prev + Math.round((ys[tick] - prev) * alpha);
+        }
+    }
+
+    private static BufferedImage faded; // the atlas bird at OPACITY
+
+    private final Track[] tracks; // best run first
+    private final long seed;
+    private BufferedImage strip; // marks of the ghosts past DRAWN, created on first use
+    private int[] stripPixels;
+    private int lastTop = -1, lastBottom = -1; // rows covered at the last addDamage()
+
+    private GhostLayer(Track[] tracks, long seed) {
+        this.tracks = tracks;
+        this.seed = seed;
+    }
+
+    /**
+     * Ghosts for a level: the best recording of that level in dir (most points, then the
+     * longest run) and every other recording on the same seed, so they race the same layout.
+     * Unreadable files are skipped; a missing dir gives an empty layer.
+     */
+    public static GhostLayer load(Path dir, int level) {
+        List<RunRecording> runs = new ArrayList<>();
+        if (Files.isDirectory(dir)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.rpl")) {
+                for (Path file : files) {
+                    try {
+                        RunRecording r = RunRecording.read(file);
+                        if (r.getLevel() == level) runs.add(r);
+                    } catch (IOException e) {
+                        System.err.println("Skipping ghost " + file + ": " + e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error listing ghosts: " + e.getMessage());
+            }
+        }
+        if (runs.isEmpty()) return new GhostLayer(new Track[0], 0);
+        runs.sort((a, b) -> better(a, b) ? -1 : better(b, a) ? 1 : 0);
+        long seed = runs.get(0).getSeed();
+        List<Track> tracks = new ArrayList<>();
+        for (RunRecording r : runs) {
+            if (r.getSeed() == seed) tracks.add(new Track(r));
+        }
+        return new GhostLayer(tracks.toArray(new Track[0]), seed);
+    }
+
+    /** load() on the ghost-io thread, after any best run already being saved. */
+    public static CompletableFuture<GhostLayer> loadAsync(Path dir, int level) {
+        return CompletableFuture.supplyAsync(() -> load(dir, level), io);
+    }
+
+    /**
+     * Keeps r as best-level-N.rpl in dir when it beats the one stored there. Done on the
+     * ghost-io thread; the file is replaced the way ProgressSave replaces its save, so
+     * load() never reads half of it. Completes with whether r was kept.
+     */
+    public static CompletableFuture<Boolean> saveIfBest(Path dir, RunRecording r) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return writeIfBest(dir, r);
+            } catch (IOException e) {
+                System.err.println("Error saving best run: " + e.getMessage());
+                return false;
+            }
+        }, io);
+    }
+
+    private static boolean writeIfBest(Path dir, RunRecording r) throws IOException {
+        Path file = dir.resolve("best-level-" + r.getLevel() + ".rpl");
+        if (Files.exists(file)) {
+            try {
+                if (!better(r, RunRecording.read(file))) return false;
+            } catch (IOException e) {
+                // unreadable best: replace it
+            }
+        }
+        Files.createDirectories(dir);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        r.write(bytes);
+        Path temp = dir.resolve(file.getFileName() + ".tmp"); // not *.rpl, so load() skips it
+        try (FileChannel ch = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.wrap(bytes.toByteArray());
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        ProgressSave.move(temp, file);
+        return true;
+    }
+
+    private static boolean better(RunRecording a, RunRecording b) {
+        return a.getPoints() != b.getPoints() ? a.getPoints() > b.getPoints() : a.getTicks() > b.getTicks();
+    }
+
+    public boolean isEmpty() { return tracks.length == 0; }
+    public int size() { return tracks.length; }
+    /** Layout seed the ghosts were recorded on. */
+    public long getSeed() { return seed; }
+
+    /** Forgets what the previous race covered, for racing the same ghosts again. */
+    public void restart() {
+        lastTop = lastBottom = -1;
+    }
+
+    /** Draws every ghost still flying at the given world tick. */
+    public void render(Graphics2D g, int tick, float alpha) {
+        if (tracks.length == 0 || !g.hitClip(STRIP_X, 0, X + GameWorld.BIRD_W - STRIP_X, GameWorld.HEIGHT)) return;
+        BufferedImage bird = faded();
+        int drawn = 0, marked = 0;
+        for (Track t : tracks) {
+            int y = t.y(tick, alpha);
+            if (y < 0) continue;
+            if (drawn < DRAWN) {
+                g.drawImage(bird, X, y, null);
+                drawn++;
+            } else {
+                if (marked++ == 0) clearStrip();
+                mark(y + (GameWorld.BIRD_H - MARK_H) / 2);
+            }
+        }
+        if (marked > 0) g.drawImage(strip, STRIP_X, 0, null);
+    }
+
+    private void clearStrip() {
+        if (strip == null) {
+            strip = new BufferedImage(STRIP_W, GameWorld.HEIGHT, BufferedImage.TYPE_INT_ARGB);
+            stripPixels = ((DataBufferInt) strip.getRaster().getDataBuffer()).getData();
+        }
+        Arrays.fill(stripPixels, 0);
+    }
+
+    private void mark(int y) {
+        for (int row = Math.max(0, y), end = Math.min(GameWorld.HEIGHT, y + MARK_H); row < end; row++) {
+            int at = row * STRIP_W;
+            int a = Math.min(255, (stripPixels[at] >>> 24) + MARK_ALPHA);
+            Arrays.fill(stripPixels, at, at + STRIP_W, a << 24 | 0xFFFFFF);
+        }
+    }
+
+    /** Adds the rows ghosts covered at the previous call and cover now. */
+    public void addDamage(int tick, DirtyRegion damage) {
+        int top = Integer.MAX_VALUE, bottom = -1;
+        for (Track t : tracks) {
+            int y = t.y(tick, 1f);
+            if (y < 0) continue;
+            top = Math.min(top, y);
+            bottom = Math.max(bottom, y);
+        }
+        int w = X + GameWorld.BIRD_W - STRIP_X; // birds and the strip of marks
+        if (lastBottom >= 0) damage.add(STRIP_X, lastTop, w, lastBottom - lastTop + GameWorld.BIRD_H);
+        if (bottom >= 0) damage.add(STRIP_X, top, w, bottom - top + GameWorld.BIRD_H);
+        lastTop = bottom >= 0 ? top : -1;
+        lastBottom = bottom;
+    }
+
+    private static synchronized BufferedImage faded() {
+        if (faded == null) {
+            BufferedImage bird = SpriteCache.shared().get(SpriteAtlas.BIRD.src, GameWorld.BIRD_W, GameWorld.BIRD_H);
+            faded = SpriteCache.createImage(GameWorld.BIRD_W, GameWorld.BIRD_H);
+            Graphics2D g = faded.createGraphics();
+            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, OPACITY));
+            g.drawImage(bird, 0, 0, null);
+            g.dispose();
+        }
+        return faded;
+    }
+}
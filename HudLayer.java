@@ -0,0 +1,113 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * In-game HUD (score, level, coins, high score, countdown) kept in a cached translucent
+ * layer, so drawing it is a single blit.
+ * - labels and the timer icon are drawn into the layer once
+ * - digits come from a glyph atlas rendered once in the HUD font
+ * - update() only re-renders the fields whose value changed; nothing is allocated
+ */
+public class HudLayer {
+
+    static final Font FONT = new Font("MV Boli", Font.BOLD, 24);
+    private static final int HEIGHT = 120;
+
+    private static final int SCORE = 0, LEVEL = 1, COINS = 2, HIGH = 3, TIME = 4;
+    private static final String[] LABELS = { "Score: ", "Level: ", "Coins: ", "High Score: ", "" };
+    private static final int[] LABEL_X = { 10, 10, 10, GameWorld.WIDTH - 240, GameWorld.WIDTH / 2 };
+    private static final int[] BASELINE = { 40, 75, 110, 40, 30 };
+    private static final int[] MIN_DIGITS = { 1, 1, 1, 1, 2 }; // countdown shows "%02d"
+    private static final int MAX_DIGITS = 10;
+
+    private final BufferedImage layer;
+    private final BufferedImage glyphs;
+    private final int[] glyphX = new int[10];
+    private final int[] glyphW = new int[10];
+    private final int ascent, descent, maxGlyphW;
+    private final int[] valueX = new int[5];
+    private final int[] values = new int[5];
+    private final int[] digitBuf = new int[MAX_DIGITS];
+
+    public HudLayer() {
+        layer = SpriteCache.createImage(GameWorld.WIDTH, HEIGHT);
+        Graphics2D g = layer.createGraphics();
+        g.setFont(FONT);
+        FontMetrics fm = g.getFontMetrics();
+        ascent = fm.getAscent();
+        descent = fm.getDescent();
+
+        // digit glyph atlas: 0..9 side by side, each as wide as its advance
+        int x = 0, widest = 0;
+        for (int d = 0; d < 10; d++) {
+            glyphX[d] = x;
+            glyphW[d] = fm.charWidth((char) ('0' + d));
+            x += glyphW[d];
+            widest = Math.max(widest, glyphW[d]);
+        }
+        maxGlyphW = widest;
+        glyphs = SpriteCache.createImage(x, ascent + descent);
+        Graphics2D gg = glyphs.createGraphics();
+        gg.setFont(FONT);
+        gg.setColor(Color.black);
+        for (int d = 0; d < 10; d++) {
+            gg.drawString(String.valueOf((char) ('0' + d)), glyphX[d], ascent);
+        }
+        gg.dispose();
+
+        // static parts
+        g.setColor(Color.black);
+        for (int f = 0; f < LABELS.length; f++) {
+            g.drawString(LABELS[f], LABEL_X[f], BASELINE[f]);
+            valueX[f] = LABEL_X[f] + fm.stringWidth(LABELS[f]);
+            values[f] = Integer.MIN_VALUE; // nothing drawn yet
+        }
+        g.drawImage(SpriteCache.shared().get(SpriteAtlas.TIMER.src, 28, 28), GameWorld.WIDTH/2 - 40, 10, null);
+        g.dispose();
+    }
+
+    /**
+     * Re-renders only the fields that changed since the last call and adds their screen
+     * area to damage (may be null).
+     */
+    public void update(int score, int level, int coins, int highScore, int timeLeftSeconds, DirtyRegion damage) {
+        set(SCORE, score, damage);
+        set(LEVEL, level, damage);
+        set(COINS, coins, damage);
+        set(HIGH, highScore, damage);
+        set(TIME, timeLeftSeconds, damage);
+    }
+
+    public void render(Graphics2D g) {
+        g.drawImage(layer, 0, 0, null);
+    }
+
+    private void set(int field, int value, DirtyRegion damage) {
+        value = Math.max(0, value);
+        if (values[field] == value) return;
+        values[field] = value;
+
+        int n = 0;
+        do {
+            digitBuf[n++] = value % 10;
+            value /= 10;
+        } while (value > 0 && n < MAX_DIGITS);
+        while (n < MIN_DIGITS[field]) digitBuf[n++] = 0;
+
+        int top = BASELINE[field] - ascent;
+        if (damage != null) damage.add(valueX[field], top, MAX_DIGITS * maxGlyphW, ascent + descent);
+        Graphics2D g = layer.createGraphics();
+        // wipe the old value, then copy the new digits in from the glyph atlas
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(valueX[field], top, MAX_DIGITS * maxGlyphW, ascent + descent);
+        g.setComposite(AlphaComposite.SrcOver);
+        int x = valueX[field];
+        for (int i = n - 1; i >= 0; i--) {
+            int d = digitBuf[i];
+            g.drawImage(glyphs, x, top, x + glyphW[d], top + ascent + descent,
+                    glyphX[d], 0, glyphX[d] + glyphW[d], ascent + descent, null);
+            x += glyphW[d];
+        }
+        g.dispose();
+    }
+}
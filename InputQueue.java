@@ -0,0 +1,55 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-producer/single-consumer ring of timestamped input actions.
+ * The EDT offers key presses without taking the game's monitor, and the thread that
+ * ticks the game drains them right before a simulation step, so a jump always lands on a
+ * tick boundary however busy the EDT or the render is.
+ *
+ * Each side owns one counter and only publishes it with a release store (lazySet); the
+ * other side reads it with an acquire (get). Nothing allocates after construction.
+ */
+public final class InputQueue {
+    public static final int JUMP = 1;
+
+    /** Receives drained actions; nanos is the System.nanoTime() the input happened at. */
+    public interface Sink {
+        void accept(int action, long nanos);
+    }
+
+    private final int mask;
+    private final int[] actions;
+    private final long[] times;
+    private final AtomicLong head = new AtomicLong(); // next slot to read, consumer-owned
+    private final AtomicLong tail = new AtomicLong(); // next slot to write, producer-owned
+
+    /** @param capacity rounded up to a power of two */
+    public InputQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = size - 1;
+        actions = new int[size];
+        times = new long[size];
+    }
+
+    /** Producer side. Returns false (and drops the input) when the queue is full. */
+    public boolean offer(int action, long nanos) {
+        long t = tail.get();
+        if (t - head.get() > mask) return false;
+        int i = (int) t & mask;
+        actions[i] = action;
+        times[i] = nanos;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /** Consumer side. Hands every queued input to sink in order; returns how many. */
+    public int drain(Sink sink) {
+        long h = head.get(), t = tail.get();
+        for (long k = h; k < t; k++) {
+            int i = (int) k & mask;
+            sink.accept(actions[i], times[i]);
+        }
+        head.lazySet(t);
+        return (int) (t - h);
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * An automated player: decides once per tick, before GameWorld.tick(), whether to jump.
+ * Policies are shared by all simulation threads, so they must keep no mutable state,
+ * and they are called every tick, so they must not allocate.
+ */
+public interface JumpPolicy {
+
+    boolean shouldJump(GameWorld world);
+
+    /** Flaps whenever it falls below the middle of the next gap. */
+    JumpPolicy GAP_SEEKER = world -> {
+        Bird bird = world.getBird();
+        int target = GameWorld.HEIGHT / 2;
+        int k = nextColumn(world);
+        if (k >= 0) {
+            EntityStore store = world.getTubeColumn().getStore();
+            int top = store.slotAt(k), bottom = store.slotAt(k + 1);
+            target = (store.y(top) + store.h(top) + store.y(bottom)) / 2;
+        }
+        return bird.getDy() > 0 && bird.getY() + bird.getHeight() / 2 > target;
+    };
+
+    /** Jumps at the last moment before the next tick would take it into the lower tube. */
+    JumpPolicy LOOKAHEAD = world -> {
+        Bird bird = world.getBird();
+        int k = nextColumn(world);
+        int floor = GameWorld.HEIGHT - 50, ceiling = 0;
+        if (k >= 0) {
+            EntityStore store = world.getTubeColumn().getStore();
+            int top = store.slotAt(k), bottom = store.slotAt(k + 1);
+            ceiling = store.y(top) + store.h(top);
+            floor = store.y(bottom);
+        }
+        // gravity adds 1 per tick up to 8
+        int nextBottom = bird.getY() + bird.getHeight() + Math.min(8, bird.getDy() + 1);
+        // a jump from rest climbs 14 + 13 + ... + 1 = 105 px
+        return nextBottom > floor - 4 && bird.getY() - 105 > ceiling - bird.getHeight() / 2;
+    };
+
+    /** How far ahead PLANNER looks: about the ticks a column takes to pass the bird. */
+    int PLAN_TICKS = 32;
+
+    /**
+     * Plans with Bird's own rules: simulates waiting and jumping up to PLAN_TICKS ahead
+     * against the boxes of the tubes (caps included) coming towards the bird, and jumps
+     * only when that keeps it alive longer than waiting. Conservative with pixel collision.
+     */
+    JumpPolicy PLANNER = world -> {
+        Bird bird = world.getBird();
+        EntityStore store = world.getTubeColumn().getStore();
+        int dx = world.getTubeColumn().getDx();
+        int wait = survival(store, dx, bird, bird.getY(), bird.getDy(), 0, false);
+        return wait < PLAN_TICKS && survival(store, dx, bird, bird.getY(), bird.getDy(), 0, true) > wait;
+    };
+
+    /** Never jumps: baseline survival when the bird just drops. */
+    JumpPolicy NEVER = world -> false;
+
+    /**
+     * Jumps with probability p per tick. The coin flip is a hash of seed, the world's
+     * layout seed and the tick, so it is deterministic and needs no Random per thread.
+     */
+    static JumpPolicy random(double p, long seed) {
+        long threshold = (long) (p * (1L << 53));
+        return world -> {
+            long h = seed ^ (world.getSeed() * 0x9E3779B97F4A7C15L) ^ (world.getTicks() * 0xC2B2AE3D27D4EB4FL);
+            h = (h ^ (h >>> 31)) * 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 29;
+            return (h >>> 11) < threshold;
+        };
+    }
+
+    /**
+     * Ticks (at most PLAN_TICKS) the bird at y/dy survives after step ticks of the plan,
+     * given whether it jumps before the next one, following the best choices after that.
+     * Only a falling bird considers jumping again, which keeps the search small.
+     */
+    private static int survival(EntityStore store, int dx, Bird bird, int y, int dy, int step, boolean jump) {
+        // one Bird.jump() and Bird.tick()
+        if (jump) dy = (dy > 0 ? 0 : dy) - 14;
+        if (dy < 8) dy += 1;
+        y = Math.max(0, Math.min(GameWorld.HEIGHT - 50 - bird.getHeight(), y + dy));
+        step++;
+        if (hitsTube(store, dx * step, bird, y)) return step - 1;
+        if (step == PLAN_TICKS) return step;
+        int best = survival(store, dx, bird, y, dy, step, false);
+        if (best == PLAN_TICKS || dy < 0) return best;
+        return Math.max(best, survival(store, dx, bird, y, dy, step, true));
+    }
+
+    /** Whether the bird's box at y meets a tube (or a cap) once everything moved left by shift. */
+    private static boolean hitsTube(EntityStore store, int shift, Bird bird, int y) {
+        int left = bird.getX(), right = left + bird.getWidth(), h = bird.getHeight();
+        for (int k = store.firstReaching(left + shift), n = store.span(); k < n; k++) {
+            int s = store.slotAt(k);
+            int x = store.x(s) - shift;
+            if (x >= right) {
+                if (store.isSortedByX()) break;
+                continue;
+            }
+            if (!store.isAlive(s) || !store.isTube(s) || x + store.w(s) <= left) continue;
+            int top = store.y(s);
+            if (store.type(s) == EntityStore.TUBE_CAPPED) top -= TubeColumn.CAP_HEIGHT - TubeColumn.CAP_OVERLAP;
+            if (y < store.y(s) + store.h(s) && top < y + h) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Ring position of the capped top tube of the first column still ahead of (or over) the
+     * bird; its bottom tube is the next position. -1 when there is none.
+     */
+    static int nextColumn(GameWorld world) {
+        Bird bird = world.getBird();
+        EntityStore store = world.getTubeColumn().getStore();
+        // spawn order is x order, and a column's bottom tube follows its capped top tube
+        for (int k = 0, n = store.span(); k + 1 < n; k++) {
+            int top = store.slotAt(k);
+            if (store.isAlive(top) && store.type(top) == EntityStore.TUBE_CAPPED
+                    && store.x(top) + store.w(top) > bird.getX()) {
+                return k;
+            }
+        }
+        return -1;
+    }
+}
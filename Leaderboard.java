@@ -0,0 +1,205 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Per-level scores in one small memory-mapped file of fixed size.
+ * - every run ever finished is counted in a Fenwick tree over its points, so adding a run
+ *   and asking for the rank of a score are O(log BUCKETS) whatever the number of runs
+ * - the TOP_N best runs of each level are kept as full entries (time, points, coins,
+ *   duration), sorted best first; a new entry is placed by binary search
+ * - only the header is read at open: the mapping pages in only what a query touches, so
+ *   the menu showing the bests stays instant however long the history is
+ *
+ * Layout (big endian): 16 byte header {int magic 'FBLB', int version, int topN, int buckets},
+ * then one block per level 1..MAX_LEVEL:
+ *   long runs, int topCount, int unused, int[BUCKETS] Fenwick tree of runs by points,
+ *   TOP_N entries of {long wall-clock millis, int points, int coins, int ticks}
+ * Points from BUCKETS - 1 up all share the last bucket.
+ */
+public class Leaderboard {
+    static final int MAGIC = 0x46424C42; // "FBLB"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    public static final int TOP_N = 100;
+    static final int BUCKETS = 1024;
+    static final int ENTRY_SIZE = 20;
+    private static final int TREE_OFFSET = 16;
+    private static final int TOP_OFFSET = TREE_OFFSET + BUCKETS * 4;
+    static final int LEVEL_SIZE = TOP_OFFSET + TOP_N * ENTRY_SIZE;
+    static final int FILE_SIZE = HEADER_SIZE + GameWorld.MAX_LEVEL * LEVEL_SIZE;
+
+    /** One of a level's best runs. */
+    public static final class Entry {
+        public final long millis;
+        public final int points, coins, ticks;
+
+        Entry(long millis, int points, int coins, int ticks) {
+            this.millis = millis;
+            this.points = points;
+            this.coins = coins;
+            this.ticks = ticks;
+        }
+    }
+
+    private final MappedByteBuffer b;
+
+    private Leaderboard(MappedByteBuffer b) {
+        this.b = b;
+        if (b.getInt(0) != MAGIC) {
+            // new file, all zeros: open() has moved any other layout aside
+            b.putInt(4, VERSION);
+            b.putInt(8, TOP_N);
+            b.putInt(12, BUCKETS);
+            b.putInt(0, MAGIC);
+        }
+    }
+
+    /**
+     * Opens (or creates) the leaderboard file; null when it cannot be mapped.
+     * A file with another layout is moved to a .bak next to it rather than overwritten.
+     */
+    public static Leaderboard open(Path file) {
+        try {
+            if (!isNewOrCurrent(file)) {
+                Path backup = file.resolveSibling(file.getFileName() + ".bak");
+                ProgressSave.move(file, backup);
+                System.err.println("Leaderboard: " + file + " has another layout, moved it to " + backup);
+            }
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // the mapping stays valid after the channel is closed
+                return new Leaderboard(ch.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE));
+            }
+        } catch (IOException e) {
+            System.err.println("Leaderboard disabled: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** True when the file is missing, all zeros, or has this version's header and size. */
+    private static boolean isNewOrCurrent(Path file) throws IOException {
+        if (!Files.exists(file)) return true;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > FILE_SIZE) return false;
+            ByteBuffer content = ByteBuffer.allocate((int) size);
+            content.limit(Math.min(HEADER_SIZE, content.capacity())); // the header is enough when it matches
+            while (content.hasRemaining() && ch.read(content) >= 0) { }
+            if (size == FILE_SIZE && content.getInt(0) == MAGIC && content.getInt(4) == VERSION
+                    && content.getInt(8) == TOP_N && content.getInt(12) == BUCKETS) {
+                return true;
+            }
+            // zeros only: created but never initialized, e.g. a crash right after mapping
+            content.limit(content.capacity());
+            while (content.hasRemaining() && ch.read(content) >= 0) { }
+            for (int i = 0; i < content.position(); i++) {
+                if (content.get(i) != 0) return false;
+            }
+            return true;
+        }
+    }
+
+    /** Adds a finished run and returns its rank among all runs of the level (1 = best). */
+    public synchronized int add(int level, int points, int coins, int ticks, long millis) {
+        int base = base(level);
+        for (int i = bucket(points) + 1; i <= BUCKETS; i += i & -i) {
+            int at = base + TREE_OFFSET + (i - 1) * 4;
+            b.putInt(at, b.getInt(at) + 1);
+        }
+        b.putLong(base, b.getLong(base) + 1);
+        insertTop(base, points, coins, ticks, millis);
+        return rank(level, points);
+    }
+
+    /** Rank a run with these points would have: 1 + the number of runs with more points. */
+    public synchronized int rank(int level, int points) {
+        int base = base(level);
+        long notAbove = 0; // runs with at most these points (the same bucket counts as a tie)
+        for (int i = bucket(points) + 1; i > 0; i -= i & -i) {
+            notAbove += b.getInt(base + TREE_OFFSET + (i - 1) * 4);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, 1 + b.getLong(base) - notAbove);
+    }
+
+    /** Number of runs ever added for a level. */
+    public synchronized long runs(int level) {
+        return b.getLong(base(level));
+    }
+
+    /** Number of entries in the level's top list, at most TOP_N. */
+    public synchronized int topCount(int level) {
+        return b.getInt(base(level) + 8);
+    }
+
+    /** The i-th best run of a level, 0 = best. */
+    public synchronized Entry top(int level, int i) {
+        if (i < 0 || i >= topCount(level)) throw new IndexOutOfBoundsException("entry " + i);
+        int at = base(level) + TOP_OFFSET + i * ENTRY_SIZE;
+        return new Entry(b.getLong(at), b.getInt(at + 8), b.getInt(at + 12), b.getInt(at + 16));
+    }
+
+    /** Points of the level's best run, -1 when it was never played. */
+    public synchronized int bestPoints(int level) {
+        int base = base(level);
+        return b.getInt(base + 8) == 0 ? -1 : b.getInt(base + TOP_OFFSET + 8);
+    }
+
+    /** Sorted by points, then coins; a tie goes after the runs already there. */
+    private void insertTop(int base, int points, int coins, int ticks, long millis) {
+        int count = b.getInt(base + 8);
+        int lo = 0, hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int at = base + TOP_OFFSET + mid * ENTRY_SIZE;
+            int p = b.getInt(at + 8), c = b.getInt(at + 12);
+            if (p > points || (p == points && c >= coins)) lo = mid + 1;
+            else hi = mid;
+        }
+        if (lo == TOP_N) return; // not good enough for the list
+        int last = Math.min(count, TOP_N - 1); // the entry at TOP_N - 1 falls off
+        for (int i = last; i > lo; i--) {
+            int to = base + TOP_OFFSET + i * ENTRY_SIZE;
+            for (int k = 0; k < ENTRY_SIZE; k += 4) b.putInt(to + k, b.getInt(to - ENTRY_SIZE + k));
+        }
+        int at = base + TOP_OFFSET + lo * ENTRY_SIZE;
+        b.putLong(at, millis);
+        b.putInt(at + 8, points);
+        b.putInt(at + 12, coins);
+        b.putInt(at + 16, ticks);
+        if (count < TOP_N) b.putInt(base + 8, count + 1);
+    }
+
+    private static int base(int level) {
+        if (level < 1 || level > GameWorld.MAX_LEVEL) throw new IllegalArgumentException("level " + level);
+        return HEADER_SIZE + (level - 1) * LEVEL_SIZE;
+    }
+
+    private static int bucket(int points) {
+        return Math.max(0, Math.min(BUCKETS - 1, points));
+    }
+
+    /** Usage: java Leaderboard [leaderboard.dat] [entries per level] */
+    public static void main(String[] args) {
+        Leaderboard board = open(Paths.get(args.length > 0 ? args[0] : "leaderboard.dat"));
+        if (board == null) System.exit(1);
+        int shown = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        SimpleDateFormat date = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+        for (int level = 1; level <= GameWorld.MAX_LEVEL; level++) {
+            if (board.runs(level) == 0) continue;
+            System.out.printf("level %d: %d runs%n", level, board.runs(level));
+            for (int i = 0; i < Math.min(shown, board.topCount(level)); i++) {
+                Entry e = board.top(level, i);
+                System.out.printf("  %3d. %4d points %4d coins %6.1f s  %s%n", i + 1, e.points, e.coins,
+                        e.ticks * GameWorld.TICK_MS / 1000.0, date.format(new Date(e.millis)));
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+import java.util.Random;
+
+/**
+ * Deterministic column generator. Produces the same gap/coin/timer layout as the old
+ * batch initTubes(), one column at a time, in chunks of (5 + level) columns that share
+ * a random gap position factor. The sequence depends only on (level, seed).
+ */
+public class LevelGenerator {
+    public static final int TUBE_WIDTH = 80; // base width
+    public static final int SPACING = 280;   // distance between two columns
+    public static final int COIN_SIZE = 24;
+    public static final int TIMER_SIZE = 28;
+
+    private final Random random;
+    private final int level;
+    private final int chunkSize;
+    private final int gapSize;
+    private int indexInChunk = 0;
+    private int randWay;
+
+    public LevelGenerator(int level, long seed) {
+        this.level = level;
+        this.random = new Random(seed);
+        this.chunkSize = 5 + level;
+        this.gapSize = Math.max(140 - (level*8), 80); // higher level -> smaller gap (harder)
+    }
+
+    public int getChunkSize() { return chunkSize; }
+
+    /** Generates the next column into slot of the stream's ring buffer. */
+    void generate(ColumnStream out, int slot) {
+        if (indexInChunk == 0) {
+            randWay = random.nextInt(6); // random gap position factor
+        }
+        int i = indexInChunk;
+        // compute top tube (y coordinate for top piece)
+        int gapY = 120 + randWay*40 + i*30 - level*2 + random.nextInt(40);
+        if (gapY < 80) gapY = 80;
+
+        // occasionally add a coin inside the gap (to the right x coordinate)
+        int coinY = -1;
+        if (random.nextDouble() < 0.6) {
+            coinY = gapY + gapSize/2 - COIN_SIZE/2 + random.nextInt(30) - 15;
+        }
+        // occasionally add a timer power-up
+        int timerDx = -1, timerY = -1;
+        if (random.nextDouble() < 0.18) {
+            timerDx = TUBE_WIDTH + 10 + random.nextInt(60);
+            timerY = gapY + 20 + random.nextInt(Math.max(10, gapSize-40));
+        }
+        out.write(slot, gapY, gapSize, coinY, timerDx, timerY);
+
+        if (++indexInChunk == chunkSize) indexInChunk = 0;
+    }
+}
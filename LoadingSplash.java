@@ -0,0 +1,43 @@
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Small undecorated window with a progress bar, shown while AssetLoader runs.
+ * Paints only text and rectangles, so it appears before any image is decoded.
+ */
+public class LoadingSplash extends JWindow {
+    private static final long serialVersionUID = 1L;
+    private static final int W = 360, H = 90;
+    private static final Font FONT = new Font("MV Boli", Font.BOLD, 18);
+    private static final Color BAR = new Color(240, 200, 40);
+
+    private final int steps;
+    private volatile int done = 0;
+
+    public LoadingSplash(int steps) {
+        this.steps = Math.max(1, steps);
+        JComponent content = new JComponent() {
+            @Override
+            protected void paintComponent(Graphics g) {
+                g.setColor(Color.darkGray);
+                g.fillRect(0, 0, W, H);
+                g.setColor(Color.white);
+                g.setFont(FONT);
+                g.drawString("Loading...", 20, 35);
+                g.drawRect(20, 50, W - 40, 18);
+                g.setColor(BAR);
+                g.fillRect(21, 51, (W - 41) * done / LoadingSplash.this.steps, 17);
+            }
+        };
+        content.setPreferredSize(new Dimension(W, H));
+        setContentPane(content);
+        pack();
+        setLocationRelativeTo(null);
+    }
+
+    /** Callable from any thread. */
+    public void progress(int finishedSteps) {
+        done = Math.min(finishedSteps, steps);
+        repaint();
+    }
+}
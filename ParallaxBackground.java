@@ -0,0 +1,71 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Scrolling background made of horizontal bands (ceiling, back wall, floor) that move at
+ * different fractions of the tube speed. Each band is cut once into an opaque compatible
+ * strip holding the band and its mirror image, so it tiles without a seam; a frame is then
+ * one or two unscaled offset blits per band, covering the screen exactly once like the old
+ * single drawImage did.
+ */
+public class ParallaxBackground {
+    /** Band edges in logical pixels, top to bottom. */
+    private static final int[] BAND_Y = {0, 110, 460, GameWorld.HEIGHT};
+    /** Scroll speed of each band relative to the tubes; the floor moves with them. */
+    private static final float[] FACTOR = {0.5f, 0.25f, 1f};
+    private static final int PERIOD = GameWorld.WIDTH * 2;
+
+    private final BufferedImage[] strips = new BufferedImage[FACTOR.length];
+    private final int[] lastOffset = new int[FACTOR.length]; // as of the last addDamage
+
+    /** @param background the background already scaled to GameWorld.WIDTH x HEIGHT */
+    public ParallaxBackground(Image background) {
+        for (int i = 0; i < strips.length; i++) {
+            int y = BAND_Y[i], h = BAND_Y[i + 1] - y;
+            BufferedImage strip = SpriteCache.createOpaqueImage(PERIOD, h);
+            Graphics2D g = strip.createGraphics();
+            g.drawImage(background, 0, 0, GameWorld.WIDTH, h, 0, y, GameWorld.WIDTH, y + h, null);
+            // mirrored copy, so the right edge of one tile meets the same pixels on the next
+            g.drawImage(background, PERIOD, 0, GameWorld.WIDTH, h, 0, y, GameWorld.WIDTH, y + h, null);
+            g.dispose();
+            strips[i] = strip;
+        }
+    }
+
+    /**
+     * Draws every band that intersects the clip.
+     * @param scrolled distance the tubes have scrolled, in pixels (0 for a still background)
+     */
+    public void render(Graphics2D g, int scrolled) {
+        for (int i = 0; i < strips.length; i++) {
+            int y = BAND_Y[i], h = BAND_Y[i + 1] - y;
+            if (!g.hitClip(0, y, GameWorld.WIDTH, h)) continue;
+            int off = offset(i, scrolled);
+            int first = Math.min(GameWorld.WIDTH, PERIOD - off);
+            g.drawImage(strips[i], 0, y, first, y + h, off, 0, off + first, h, null);
+            if (first < GameWorld.WIDTH) {
+                // wrapped past the end of the strip: the rest comes from its start
+                g.drawImage(strips[i], first, y, GameWorld.WIDTH, y + h, 0, 0, GameWorld.WIDTH - first, h, null);
+            }
+        }
+    }
+
+    /**
+     * Adds the bands whose offset changed since the previous call. The floor band moves
+     * every tick, so callers keep these in a DirtyRegion of their own rather than merging
+     * a full-width strip into the world's damage.
+     */
+    public void addDamage(int scrolled, DirtyRegion damage) {
+        for (int i = 0; i < strips.length; i++) {
+            int off = offset(i, scrolled);
+            if (off != lastOffset[i]) {
+                damage.add(0, BAND_Y[i], GameWorld.WIDTH, BAND_Y[i + 1] - BAND_Y[i]);
+                lastOffset[i] = off;
+            }
+        }
+    }
+
+    private static int offset(int band, int scrolled) {
+        return Math.floorMod((int) (scrolled * FACTOR[band]), PERIOD);
+    }
+}
@@ -0,0 +1,51 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder events for the three phases of a frame, plus input latency.
+ * They are only created while profiling is on (PerfMonitor), and cost next to nothing
+ * when no recording is running. Start one with --perf-jfr file, or with
+ * -XX:StartFlightRecording, and look for the ChronoFlight events longer than the
+ * 15 ms tick.
+ */
+public final class PerfEvents {
+    private PerfEvents() {}
+
+    @Name("chronoflight.Tick")
+    @Label("Simulation Tick")
+    @Category("ChronoFlight")
+    @Description("One GameWorld.tick(), collision included")
+    public static class Tick extends Event {
+        @Label("Level") int level;
+        @Label("Tick") int tick;
+        @Label("Entities") int entities;
+    }
+
+    @Name("chronoflight.Collision")
+    @Label("Collision Check")
+    @Category("ChronoFlight")
+    @Description("GameWorld.checkCollision()")
+    public static class Collision extends Event {
+        @Label("Entities") int entities;
+    }
+
+    @Name("chronoflight.Paint")
+    @Label("Paint")
+    @Category("ChronoFlight")
+    @Description("GamePanel.renderFrame(), i.e. paintComponent or an active-render frame")
+    public static class Paint extends Event {
+        @Label("In Game") boolean inGame;
+    }
+
+    @Name("chronoflight.Input")
+    @Label("Input Latency")
+    @Category("ChronoFlight")
+    @Description("Key press to the first presented frame showing its effect")
+    public static class Input extends Event {
+        @Label("Latency") @Timespan(Timespan.NANOSECONDS) long latency;
+    }
+}
@@ -0,0 +1,60 @@
+import java.util.Arrays;
+
+/**
+ * Log-linear histogram of durations in microseconds: 16 buckets per power of two, so any
+ * percentile is within about 6% of the true value. Recording is an index computation
+ * and an array increment; nothing is allocated.
+ */
+public class PerfHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = SUB + 40 * SUB; // up to ~2^44 us
+
+    private final long[] counts = new long[BUCKETS];
+    private long total = 0;
+    private long max = 0;
+
+    public void recordNanos(long nanos) {
+        long us = Math.max(0, nanos / 1000);
+        counts[index(us)]++;
+        total++;
+        if (us > max) max = us;
+    }
+
+    private static int index(long v) {
+        if (v < SUB) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v); // >= SUB_BITS
+        int shift = exp - SUB_BITS;
+        int i = SUB + shift * SUB + (int) (v >>> shift) - SUB;
+        return Math.min(i, BUCKETS - 1);
+    }
+
+    /** Largest value that falls into bucket i. */
+    private static long upperBound(int i) {
+        if (i < SUB) return i;
+        int shift = (i - SUB) / SUB;
+        long sub = SUB + (i - SUB) % SUB;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /** Value (us) below which fraction q of the recorded values lie, 0 when empty. */
+    public long percentile(double q) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+
+    public long count() { return total; }
+    public long max() { return max; }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        total = 0;
+        max = 0;
+    }
+}
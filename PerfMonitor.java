@@ -0,0 +1,217 @@
+import java.awt.*;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Frame, tick and collision timing for the in-game overlay (F3) and for export.
+ * - durations go into PerfHistograms; every second the window is summarised into the
+ *   overlay text (p50/p99/max), entity counts from TubeColumn's store, the game thread's
+ *   allocation rate (ThreadMXBean) and GC count and time (GarbageCollectorMXBeans)
+ * - phases longer than the 15 ms tick are counted per phase
+ * - input latency is the time from a key press to the first frame presented after the
+ *   tick that applied it (see InputQueue)
+ * - --perf-csv file appends that summary as one CSV row per second (written off the game
+ *   thread); --perf-jfr file records the PerfEvents to a flight recording
+ * Everything is called from the thread that ticks and renders the game.
+ */
+public class PerfMonitor {
+    public static final long BUDGET_NANOS = GameWorld.TICK_MS * 1_000_000L;
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+    private static final Color SHADE = new Color(0, 0, 0, 160);
+    // overlay area, below the HUD on the right
+    public static final int X = GameWorld.WIDTH - 370, Y = 60, W = 360, H = 126;
+
+    private static Path csvFile, jfrFile;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final List<GarbageCollectorMXBean> GCS = ManagementFactory.getGarbageCollectorMXBeans();
+
+    private final PerfHistogram tick = new PerfHistogram();
+    private final PerfHistogram collision = new PerfHistogram();
+    private final PerfHistogram frame = new PerfHistogram();
+    private final PerfHistogram input = new PerfHistogram();
+    private int tickOver, collisionOver, frameOver;
+    private int live, span, capacity;
+
+    private boolean visible = false;
+    private final boolean exporting;
+    private String[] lines = { "collecting..." };
+    private long windowStart, allocStart, gcCountStart, gcTimeStart;
+
+    private BufferedWriter csv;
+    private ExecutorService csvWriter;
+
+    /** Export settings from the command line; call before the game is created. */
+    public static void configure(Path csv, Path jfr) {
+        csvFile = csv;
+        jfrFile = jfr;
+    }
+
+    public PerfMonitor() {
+        exporting = csvFile != null || jfrFile != null;
+        if (csvFile != null) openCsv(csvFile);
+        if (jfrFile != null) startRecording(jfrFile);
+        startWindow(System.nanoTime());
+    }
+
+    /** Timing is only taken while the overlay is shown or a session is exported. */
+    public boolean isEnabled() { return visible || exporting; }
+    public boolean isVisible() { return visible; }
+
+    public void toggle() {
+        visible = !visible;
+        if (visible) startWindow(System.nanoTime());
+    }
+
+    public void recordTick(long nanos, GameWorld world) {
+        tick.recordNanos(nanos);
+        if (nanos > BUDGET_NANOS) tickOver++;
+        long c = world.getCollisionNanos();
+        collision.recordNanos(c);
+        if (c > BUDGET_NANOS) collisionOver++;
+        EntityStore store = world.getTubeColumn().getStore();
+        live = store.size();
+        span = store.span();
+        capacity = store.capacity();
+        roll(System.nanoTime());
+    }
+
+    public void recordFrame(long nanos) {
+        frame.recordNanos(nanos);
+        if (nanos > BUDGET_NANOS) frameOver++;
+        roll(System.nanoTime());
+    }
+
+    public void recordInput(long nanos) {
+        input.recordNanos(nanos);
+        PerfEvents.Input event = new PerfEvents.Input();
+        event.latency = nanos;
+        event.commit();
+        roll(System.nanoTime());
+    }
+
+    private void roll(long now) {
+        if (now - windowStart < WINDOW_NANOS) return;
+        double secs = (now - windowStart) / 1e9;
+        double allocMbPerSec = (THREADS.getCurrentThreadAllocatedBytes() - allocStart) / secs / (1024 * 1024);
+        long gcCount = gcCount() - gcCountStart, gcMillis = gcTime() - gcTimeStart;
+        if (visible) {
+            lines = new String[] {
+                    line("frame", frame),
+                    line("tick", tick),
+                    line("collide", collision),
+                    line("input", input),
+                    String.format("entities %d live, %d slots, %d capacity", live, span, capacity),
+                    String.format("alloc %.2f MB/s   gc %d, %d ms", allocMbPerSec, gcCount, gcMillis),
+                    String.format("over 15ms: frame %d tick %d collide %d", frameOver, tickOver, collisionOver),
+            };
+        }
+        if (csv != null) {
+            String row = String.format("%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%.3f,%d,%d,%d,%d,%d,%d,%d,%d,%d",
+                    System.currentTimeMillis(),
+                    frame.count(), frame.percentile(0.5), frame.percentile(0.99), frame.max(),
+                    tick.count(), tick.percentile(0.5), tick.percentile(0.99), tick.max(),
+                    collision.percentile(0.5), collision.percentile(0.99), collision.max(),
+                    live, span, allocMbPerSec, gcCount, gcMillis, frameOver, tickOver, collisionOver,
+                    input.count(), input.percentile(0.5), input.percentile(0.99), input.max());
+            csvWriter.execute(() -> writeCsv(row));
+        }
+        startWindow(now);
+    }
+
+    private static String line(String name, PerfHistogram h) {
+        return String.format("%-8s p50 %6d  p99 %6d  max %6d us", name, h.percentile(0.5), h.percentile(0.99), h.max());
+    }
+
+    private void startWindow(long now) {
+        windowStart = now;
+        allocStart = THREADS.getCurrentThreadAllocatedBytes();
+        gcCountStart = gcCount();
+        gcTimeStart = gcTime();
+        tick.reset();
+        collision.reset();
+        frame.reset();
+        input.reset();
+        tickOver = collisionOver = frameOver = 0;
+    }
+
+    public void draw(Graphics2D g) {
+        if (!visible) return;
+        g.setColor(SHADE);
+        g.fillRect(X, Y, W, H);
+        g.setColor(Color.white);
+        g.setFont(FONT);
+        for (int i = 0; i < lines.length; i++) {
+            g.drawString(lines[i], X + 8, Y + 18 + i * 16);
+        }
+    }
+
+    private static long gcCount() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : GCS) n += Math.max(0, gc.getCollectionCount());
+        return n;
+    }
+
+    private static long gcTime() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : GCS) n += Math.max(0, gc.getCollectionTime());
+        return n;
+    }
+
+    /* ---------- export ---------- */
+
+    private void openCsv(Path file) {
+        try {
+            csv = Files.newBufferedWriter(file);
+            csv.write("epoch_ms,frames,frame_p50_us,frame_p99_us,frame_max_us,ticks,tick_p50_us,tick_p99_us,tick_max_us,"
+                    + "collide_p50_us,collide_p99_us,collide_max_us,entities,slots,alloc_mb_s,gc_count,gc_ms,"
+                    + "frame_over_budget,tick_over_budget,collide_over_budget,inputs,input_p50_us,input_p99_us,input_max_us");
+            csv.newLine();
+            csvWriter = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "perf-csv");
+                t.setDaemon(true);
+                return t;
+            });
+        } catch (IOException e) {
+            System.err.println("Perf CSV export disabled: " + e.getMessage());
+            csv = null;
+        }
+    }
+
+    private void writeCsv(String row) {
+        try {
+            csv.write(row);
+            csv.newLine();
+            csv.flush();
+        } catch (IOException e) {
+            System.err.println("Error writing perf CSV: " + e.getMessage());
+        }
+    }
+
+    private static void startRecording(Path file) {
+        try {
+            jdk.jfr.Recording recording = new jdk.jfr.Recording();
+            recording.setName("ChronoFlight");
+            recording.enable(PerfEvents.Tick.class);
+            recording.enable(PerfEvents.Collision.class);
+            recording.enable(PerfEvents.Paint.class);
+            recording.enable(PerfEvents.Input.class);
+            recording.enable("jdk.GarbageCollection");
+            recording.setDestination(file);
+            // JFR writes it to the destination when the VM exits
+            recording.setDumpOnExit(true);
+            recording.start();
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("Perf JFR recording disabled: " + e.getMessage());
+        }
+    }
+}
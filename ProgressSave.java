@@ -1,50 +1,136 @@
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
 import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Simple progress save/load using a properties file.
  * Saves: unlockedLevel (1..10), coins, highScore
+ *
+ * save() only takes a snapshot and returns; a background writer coalesces bursts of saves
+ * into one write. A write goes to a temp file that is forced to disk and then atomically
+ * renamed over the save, after the previous save was moved to a backup. A crash therefore
+ * leaves either the new or the last good file, and load() falls back to the backup when the
+ * save is missing or unreadable. Pending progress is flushed on shutdown.
  */
 public class ProgressSave {
 
     private static final String FILE_NAME = "progress.properties";
+    private static final Path FILE = Paths.get(FILE_NAME);
+    private static final Path TEMP = Paths.get(FILE_NAME + ".tmp");
+    private static final Path BACKUP = Paths.get(FILE_NAME + ".bak");
+    // saves arriving within this window are written once
+    private static final long COALESCE_MS = 200;
+
+    private static final AtomicReference<Progress> pending = new AtomicReference<>();
+    private static final Object writeLock = new Object();
+    private static final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "progress-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ProgressSave::flush, "progress-flush"));
+    }
 
     public static class Progress {
         public int unlockedLevel = 1;
         public int coins = 0;
         public int highScore = 0;
+
+        Progress copy() {
+            Progress c = new Progress();
+            c.unlockedLevel = unlockedLevel;
+            c.coins = coins;
+            c.highScore = highScore;
+            return c;
+        }
     }
 
     public static Progress load() {
-        Progress p = new Progress();
-        Properties props = new Properties();
-        File file = new File(FILE_NAME);
-        if (!file.exists()) {
+        if (!Files.exists(FILE) && !Files.exists(BACKUP)) {
             // default progress
+            Progress p = new Progress();
             save(p);
             return p;
         }
-        try (InputStream in = new FileInputStream(file)) {
+        Progress p = read(FILE);
+        if (p == null) {
+            System.err.println("Error loading progress: " + FILE_NAME + " missing or damaged, using backup");
+            p = read(BACKUP);
+        }
+        // return defaults if both fail
+        return p != null ? p : new Progress();
+    }
+
+    /** Reads one save file, null when it is missing, truncated or does not parse. */
+    private static Progress read(Path file) {
+        if (!Files.exists(file)) return null;
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
             props.load(in);
-            p.unlockedLevel = Integer.parseInt(props.getProperty("unlockedLevel", "1"));
-            p.coins = Integer.parseInt(props.getProperty("coins", "0"));
-            p.highScore = Integer.parseInt(props.getProperty("highScore", "0"));
+            Progress p = new Progress();
+            p.unlockedLevel = Integer.parseInt(props.getProperty("unlockedLevel"));
+            p.coins = Integer.parseInt(props.getProperty("coins"));
+            p.highScore = Integer.parseInt(props.getProperty("highScore"));
+            return p;
         } catch (Exception e) {
-            System.err.println("Error loading progress: " + e.getMessage());
-            // return defaults if parse fails
+            return null;
         }
-        return p;
     }
 
+    /** Queues a snapshot of p for writing and returns at once; never touches the disk. */
     public static void save(Progress p) {
+        // only the first save of a burst schedules a write, later ones replace the snapshot
+        if (pending.getAndSet(p.copy()) == null) {
+            writer.schedule(ProgressSave::flush, COALESCE_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Writes the pending snapshot, if any, on the calling thread. */
+    public static void flush() {
+        synchronized (writeLock) {
+            Progress p = pending.getAndSet(null);
+            if (p == null) return;
+            try {
+                write(p);
+            } catch (Exception e) {
+                System.err.println("Error saving progress: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void write(Progress p) throws IOException {
         Properties props = new Properties();
         props.setProperty("unlockedLevel", String.valueOf(Math.max(1, Math.min(10, p.unlockedLevel))));
         props.setProperty("coins", String.valueOf(Math.max(0, p.coins)));
         props.setProperty("highScore", String.valueOf(Math.max(0, p.highScore)));
-        try (OutputStream out = new FileOutputStream(FILE_NAME)) {
-            props.store(out, "FlappyGame Progress");
-        } catch (Exception e) {
-            System.err.println("Error saving progress: " + e.getMessage());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        props.store(bytes, "FlappyGame Progress");
+
+        try (FileChannel ch = FileChannel.open(TEMP, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.wrap(bytes.toByteArray());
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        // keep the last good save, but never replace a good backup with a damaged file
+        if (read(FILE) != null) move(FILE, BACKUP);
+        move(TEMP, FILE);
+    }
+
+    /** Atomic replace where the file system supports it (GhostLayer saves the same way). */
+    static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
         }
     }
 }
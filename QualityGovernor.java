@@ -0,0 +1,72 @@
+/**
+ * Trades looks for frame time when frames overrun the tick budget, so the simulation
+ * keeps its rate on weak hardware. Levels, each including the ones before it:
+ *   FULL          everything
+ *   FAST_SCALING  nearest-neighbour instead of bilinear for the scaled window blit;
+ *                 skipped while the view is not scaled, as it would save nothing
+ *   NO_DECOR      still background (no parallax) and no translucent ghosts
+ *   NO_CAPS       tube caps are not drawn (they still collide)
+ *
+ * Frame times are judged per WINDOW frames. A window whose mean exceeds DOWN_FRACTION of
+ * the budget, or where a quarter of the frames overran it, steps one level down at once.
+ * Stepping back up needs calmWindows windows in a row with a mean under UP_FRACTION and
+ * no overrun. If a step up is followed by a step down soon after, calmWindows doubles, so
+ * a machine sitting right at the edge settles on the lower level instead of oscillating.
+ */
+public class QualityGovernor {
+    public static final int FULL = 0, FAST_SCALING = 1, NO_DECOR = 2, NO_CAPS = 3;
+    private static final int WINDOW = 30;
+    private static final double DOWN_FRACTION = 0.8, UP_FRACTION = 0.4;
+    private static final int MIN_CALM = 4, MAX_CALM = 64;
+
+    private final long budget;
+    private int level = FULL;
+    private int frames, overruns;
+    private long sum;
+    private int calm; // consecutive calm windows
+    private int calmWindows = MIN_CALM;
+    private int windowsSinceUp = Integer.MAX_VALUE;
+
+    public QualityGovernor(long budgetNanos) {
+        this.budget = budgetNanos;
+    }
+
+    /**
+     * Adds one frame's render time; returns true when the level changed.
+     * @param scaled whether the frame was blitted scaled (see ScaledView.isScaled)
+     */
+    public boolean record(long nanos, boolean scaled) {
+        sum += nanos;
+        if (nanos > budget) overruns++;
+        if (++frames < WINDOW) return false;
+        double mean = sum / (double) frames;
+        boolean slow = mean > budget * DOWN_FRACTION || overruns * 4 >= frames;
+        boolean quiet = mean < budget * UP_FRACTION && overruns == 0;
+        frames = overruns = 0;
+        sum = 0;
+        if (windowsSinceUp < Integer.MAX_VALUE) windowsSinceUp++;
+
+        if (slow) {
+            calm = 0;
+            if (level == NO_CAPS) return false;
+            // the last step up did not hold: wait longer before the next one
+            if (windowsSinceUp <= calmWindows) calmWindows = Math.min(MAX_CALM, calmWindows * 2);
+            level++;
+            if (level == FAST_SCALING && !scaled) level++;
+            return true;
+        }
+        calm = quiet ? calm + 1 : 0;
+        if (calm < calmWindows || level == FULL) return false;
+        calm = 0;
+        windowsSinceUp = 0;
+        level--;
+        if (level == FAST_SCALING && !scaled) level--;
+        return true;
+    }
+
+    public int getLevel() { return level; }
+
+    public boolean smoothScaling() { return level < FAST_SCALING; }
+    public boolean decorations() { return level < NO_DECOR; }
+    public boolean caps() { return level < NO_CAPS; }
+}
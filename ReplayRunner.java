@@ -0,0 +1,79 @@
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Plays a RunRecording back headless, as fast as the CPU allows, and checks that the
+ * run ends exactly as recorded (tick, points, coins, outcome). The world is rebuilt from
+ * the recorded seed with inline column generation, so no timing can leak in.
+ *
+ * Usage: java -Djava.awt.headless=true ReplayRunner file.rpl [more.rpl ...] [-repeat N]
+ * Exits with status 1 when any recording does not reproduce.
+ */
+public class ReplayRunner {
+
+    /** Result of one replay. */
+    public static class Result {
+        public final GameWorld world;
+        public final long nanos;
+
+        Result(GameWorld world, long nanos) {
+            this.world = world;
+            this.nanos = nanos;
+        }
+
+        public boolean matches(RunRecording r) {
+            return world.getTicks() == r.getTicks()
+                    && world.getPoints() == r.getPoints()
+                    && world.getCoinsCollected() == r.getCoins()
+                    && world.getOutcome() == r.getOutcome();
+        }
+    }
+
+    public static Result replay(RunRecording r) {
+        return replay(r, SpriteMasks.shared());
+    }
+
+    /** @param masks used when the run had pixel collision */
+    public static Result replay(RunRecording r, CollisionMasks masks) {
+        long t0 = System.nanoTime();
+        GameWorld world = new GameWorld(r.getLevel(), r.getSeed(), false, r.isPixelCollision() ? masks : null);
+        int next = 0, jumps = r.getJumpCount();
+        // a run left early ends at its recorded tick while still RUNNING
+        while (world.isRunning() && world.getTicks() < r.getTicks()) {
+            while (next < jumps && r.getJump(next) <= world.getTicks()) {
+                world.jump();
+                next++;
+            }
+            world.tick();
+        }
+        return new Result(world, System.nanoTime() - t0);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int repeat = 1;
+        boolean failed = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-repeat")) {
+                repeat = Integer.parseInt(args[++i]);
+                continue;
+            }
+            Path file = Paths.get(args[i]);
+            RunRecording r = RunRecording.read(file);
+            Result res = null;
+            long nanos = 0;
+            for (int k = 0; k < repeat; k++) {
+                res = replay(r);
+                nanos += res.nanos;
+            }
+            boolean ok = res.matches(r);
+            failed |= !ok;
+            GameWorld w = res.world;
+            System.out.printf("%s level %d: %s  ticks %d/%d points %d/%d coins %d/%d %s/%s  %.0f ticks/s%n",
+                    file, r.getLevel(), ok ? "OK" : "MISMATCH",
+                    w.getTicks(), r.getTicks(), w.getPoints(), r.getPoints(),
+                    w.getCoinsCollected(), r.getCoins(), w.getOutcome(), r.getOutcome(),
+                    (double) w.getTicks() * repeat / (nanos / 1e9));
+        }
+        if (failed) System.exit(1);
+    }
+}
@@ -0,0 +1,142 @@
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Everything needed to reproduce one run: level, layout seed, collision mode and the
+ * simulation tick of every jump, plus the result the run ended with so a replay can be
+ * verified against it.
+ *
+ * Binary file (big endian):
+ *   int magic 'FBRP', byte version, byte level, long seed, byte pixelCollision,
+ *   int ticks, int points, int coins, byte outcome, int jumpCount,
+ *   then each jump tick as a varint delta from the previous one
+ * A typical run is a few hundred bytes.
+ */
+public class RunRecording {
+    private static final int MAGIC = 0x46425250; // "FBRP"
+    private static final int VERSION = 1;
+
+    private final int level;
+    private final long seed;
+    private final boolean pixelCollision;
+    private int[] jumps = new int[64];
+    private int jumpCount = 0;
+    private int ticks, points, coins;
+    private GameWorld.Outcome outcome = GameWorld.Outcome.RUNNING;
+
+    /** @param pixelCollision the run used sprite masks (SpriteMasks) rather than bounding boxes */
+    public RunRecording(int level, long seed, boolean pixelCollision) {
+        this.level = level;
+        this.seed = seed;
+        this.pixelCollision = pixelCollision;
+    }
+
+    /** Records a jump applied before simulation tick number tick (GameWorld.getTicks()). */
+    public void jump(int tick) {
+        if (jumpCount == jumps.length) jumps = Arrays.copyOf(jumps, jumpCount * 2);
+        jumps[jumpCount++] = tick;
+    }
+
+    /** Stores the state the run ended in; also for runs left early (outcome RUNNING). */
+    public void finish(GameWorld world) {
+        ticks = world.getTicks();
+        points = world.getPoints();
+        coins = world.getCoinsCollected();
+        outcome = world.getOutcome();
+    }
+
+    public void write(Path file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            write(out);
+        }
+    }
+
+    /** Writes the recording to out, which is left open. */
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(level);
+        out.writeLong(seed);
+        out.writeByte(pixelCollision ? 1 : 0);
+        out.writeInt(ticks);
+        out.writeInt(points);
+        out.writeInt(coins);
+        out.writeByte(outcome.ordinal());
+        out.writeInt(jumpCount);
+        int prev = 0;
+        for (int i = 0; i < jumpCount; i++) {
+            writeVarInt(out, jumps[i] - prev);
+            prev = jumps[i];
+        }
+        out.flush();
+    }
+
+    public static RunRecording read(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads a recording from in, which is left open. Input that is not a well-formed
+     * recording of a real level (also untrusted input, see ValidationServer) gives an
+     * IOException.
+     */
+    public static RunRecording read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) throw new IOException("not a recording");
+        int version = in.readUnsignedByte();
+        if (version != VERSION) throw new IOException("unsupported recording version " + version);
+        int level = in.readUnsignedByte();
+        if (level < 1 || level > GameWorld.MAX_LEVEL) throw new IOException("no such level " + level);
+        RunRecording r = new RunRecording(level, in.readLong(), in.readByte() != 0);
+        r.ticks = in.readInt();
+        r.points = in.readInt();
+        r.coins = in.readInt();
+        int outcome = in.readUnsignedByte();
+        if (outcome >= GameWorld.Outcome.values().length) throw new IOException("no such outcome " + outcome);
+        r.outcome = GameWorld.Outcome.values()[outcome];
+        int n = in.readInt();
+        if (r.ticks < 0 || n < 0) throw new IOException("negative tick or jump count");
+        int tick = 0;
+        for (int i = 0; i < n; i++) {
+            tick += readVarInt(in);
+            // every jump is applied before some tick of the run
+            if (tick < 0 || tick > r.ticks) throw new IOException("jump at tick " + tick + " outside the run");
+            r.jump(tick);
+        }
+        return r;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int v) throws IOException {
+        while ((v & ~0x7F) != 0) {
+            out.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte(v);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int v = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("malformed varint");
+    }
+
+    public int getLevel() { return level; }
+    public long getSeed() { return seed; }
+    public boolean isPixelCollision() { return pixelCollision; }
+    public int getJumpCount() { return jumpCount; }
+    /** Tick of the i-th jump, in increasing order. */
+    public int getJump(int i) { return jumps[i]; }
+    public int getTicks() { return ticks; }
+    public int getPoints() { return points; }
+    public int getCoins() { return coins; }
+    public GameWorld.Outcome getOutcome() { return outcome; }
+}
@@ -0,0 +1,121 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+/**
+ * Maps the logical GameWorld.WIDTH x HEIGHT screen onto a surface of any size.
+ * The game always renders into a logical-size back buffer (a VolatileImage, so it stays in
+ * VRAM), which is then drawn to the surface with one scaled, letterboxed drawImage. Sprite
+ * work therefore does not grow with the window or display resolution; only that last blit
+ * does, and it is done by the graphics pipeline.
+ *
+ * The back buffer keeps its contents between frames, so a partial repaint only re-renders
+ * the damaged logical area (see DirtyRegion). render() returns the time it took; callers
+ * report a frame's total to the game, whose QualityGovernor may switch the last blit to
+ * nearest-neighbour.
+ */
+public class ScaledView {
+    private VolatileImage vram;
+    private BufferedImage headless; // without a screen there is no VolatileImage
+    private boolean valid = false;  // back buffer holds a complete frame
+
+    /** Scale factor from logical to surface pixels, keeping the aspect ratio. */
+    public static double scale(int w, int h) {
+        return Math.max(0.01, Math.min(w / (double) GameWorld.WIDTH, h / (double) GameWorld.HEIGHT));
+    }
+
+    /** Whether a w x h surface shows the logical screen at other than its own size. */
+    public static boolean isScaled(int w, int h) {
+        double s = scale(w, h);
+        return Math.round(GameWorld.WIDTH * s) != GameWorld.WIDTH || Math.round(GameWorld.HEIGHT * s) != GameWorld.HEIGHT;
+    }
+
+    private static int offsetX(int w, int h) {
+        return (w - (int) Math.round(GameWorld.WIDTH * scale(w, h))) / 2;
+    }
+
+    private static int offsetY(int w, int h) {
+        return (h - (int) Math.round(GameWorld.HEIGHT * scale(w, h))) / 2;
+    }
+
+    /** Surface point (e.g. a mouse click on c) to logical coordinates. */
+    public static Point toLogical(Point p, Component c) {
+        int w = c.getWidth(), h = c.getHeight();
+        double s = scale(w, h);
+        return new Point((int) Math.floor((p.x - offsetX(w, h)) / s), (int) Math.floor((p.y - offsetY(w, h)) / s));
+    }
+
+    /** Surface-space bounds of a logical rectangle on c, rounded outwards. */
+    public static Rectangle toSurface(int x, int y, int w, int h, Component c) {
+        int cw = c.getWidth(), ch = c.getHeight();
+        double s = scale(cw, ch);
+        int x0 = (int) Math.floor(x * s) + offsetX(cw, ch), y0 = (int) Math.floor(y * s) + offsetY(cw, ch);
+        int x1 = (int) Math.ceil((x + w) * s) + offsetX(cw, ch), y1 = (int) Math.ceil((y + h) * s) + offsetY(cw, ch);
+        return new Rectangle(x0 - 1, y0 - 1, x1 - x0 + 2, y1 - y0 + 2);
+    }
+
+    /**
+     * Renders the game into the back buffer and blits it onto a w x h surface.
+     * @param surfaceClip area of the surface being repainted, null for all of it; only the
+     *                    logical area under it is re-rendered
+     * @param gc          configuration of the surface, null when headless
+     * @return nanoseconds taken
+     */
+    public long render(Graphics2D g, int w, int h, Rectangle surfaceClip, GraphicsConfiguration gc, GamePanel game, float alpha) {
+        long start = System.nanoTime();
+        double s = scale(w, h);
+        int ox = offsetX(w, h), oy = offsetY(w, h);
+        Image frame;
+        if (gc == null) {
+            if (headless == null) {
+                headless = new BufferedImage(GameWorld.WIDTH, GameWorld.HEIGHT, BufferedImage.TYPE_INT_RGB);
+                valid = false;
+            }
+            draw(headless.createGraphics(), surfaceClip, s, ox, oy, game, alpha);
+            frame = headless;
+        } else {
+            do {
+                int state = vram == null ? VolatileImage.IMAGE_INCOMPATIBLE : vram.validate(gc);
+                if (state == VolatileImage.IMAGE_INCOMPATIBLE) {
+                    vram = gc.createCompatibleVolatileImage(GameWorld.WIDTH, GameWorld.HEIGHT);
+                }
+                if (state != VolatileImage.IMAGE_OK) valid = false;
+                draw(vram.createGraphics(), surfaceClip, s, ox, oy, game, alpha);
+            } while (vram.contentsLost());
+            frame = vram;
+        }
+        // letterbox bars (the blit covers the rest)
+        g.setColor(Color.black);
+        if (ox > 0) {
+            g.fillRect(0, 0, ox, h);
+            g.fillRect(w - ox, 0, ox, h);
+        }
+        if (oy > 0) {
+            g.fillRect(0, 0, w, oy);
+            g.fillRect(0, h - oy, w, oy);
+        }
+        int dw = (int) Math.round(GameWorld.WIDTH * s), dh = (int) Math.round(GameWorld.HEIGHT * s);
+        if (isScaled(w, h) && game.smoothScaling()) {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        }
+        g.drawImage(frame, ox, oy, dw, dh, null);
+        return System.nanoTime() - start;
+    }
+
+    private void draw(Graphics2D bg, Rectangle surfaceClip, double s, int ox, int oy, GamePanel game, float alpha) {
+        try {
+            if (valid && surfaceClip != null) {
+                // logical area under the surface clip, widened for the filter's footprint
+                int x0 = (int) Math.floor((surfaceClip.x - ox) / s) - 1;
+                int y0 = (int) Math.floor((surfaceClip.y - oy) / s) - 1;
+                int x1 = (int) Math.ceil((surfaceClip.x + surfaceClip.width - ox) / s) + 1;
+                int y1 = (int) Math.ceil((surfaceClip.y + surfaceClip.height - oy) / s) + 1;
+                bg.clipRect(x0, y0, x1 - x0, y1 - y0);
+            }
+            game.renderFrame(bg, alpha);
+            valid = true;
+        } finally {
+            bg.dispose();
+        }
+    }
+}
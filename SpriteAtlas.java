@@ -0,0 +1,140 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+/**
+ * All gameplay sprites packed into one accelerated surface.
+ * - regions are pre-scaled once through SpriteCache and packed on shelves
+ * - the packed image lives in a VolatileImage (VRAM); a BufferedImage copy is kept to
+ *   restore it whenever the surface is lost (display mode change, lock screen, ...)
+ * - without a screen (headless) everything is drawn from the BufferedImage copy
+ *
+ * Call beginFrame once per frame before drawing, then draw regions with draw/drawTiled.
+ */
+public class SpriteAtlas {
+
+    /** Sub-rectangle of the atlas. */
+    public static final class Region {
+        public final String src;
+        public final int w, h;
+        int x, y;
+
+        Region(String src, int w, int h) {
+            this.src = src;
+            this.w = w;
+            this.h = h;
+        }
+    }
+
+    // sizes the game actually uses, so the common case is a 1:1 copy
+    public static final Region BIRD = new Region("bird.png", 48, 36);
+    public static final Region TUBE_BODY = new Region("TubeBody.png", 80, 80);
+    public static final Region TUBE_TOP = new Region("TubeTop.png", LevelGenerator.TUBE_WIDTH, TubeColumn.CAP_HEIGHT);
+    public static final Region COIN = new Region("coin.png", 24, 24);
+    public static final Region TIMER = new Region("timer_icon.png", 28, 28);
+
+    private static final Region[] REGIONS = { BIRD, TUBE_BODY, TUBE_TOP, COIN, TIMER };
+
+    /** Every region in the atlas; AssetLoader pre-scales them. */
+    static Region[] regions() {
+        return REGIONS.clone();
+    }
+    private static final int MAX_ROW_WIDTH = 256;
+    private static final int PAD = 1; // keeps bilinear scaling from bleeding neighbours in
+
+    private static SpriteAtlas shared;
+
+    public static synchronized SpriteAtlas shared() {
+        if (shared == null) {
+            shared = new SpriteAtlas();
+        }
+        return shared;
+    }
+
+    private final BufferedImage backing;
+    private VolatileImage vram;
+
+    private SpriteAtlas() {
+        // shelf packing: fill rows left to right, start a new row when too wide
+        int x = 0, y = 0, rowH = 0, atlasW = 0;
+        for (Region r : REGIONS) {
+            if (x > 0 && x + r.w > MAX_ROW_WIDTH) {
+                x = 0;
+                y += rowH + PAD;
+                rowH = 0;
+            }
+            r.x = x;
+            r.y = y;
+            x += r.w + PAD;
+            rowH = Math.max(rowH, r.h);
+            atlasW = Math.max(atlasW, x);
+        }
+        backing = SpriteCache.createImage(atlasW, y + rowH);
+        Graphics2D g = backing.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        for (Region r : REGIONS) {
+            g.drawImage(SpriteCache.shared().get(r.src, r.w, r.h), r.x, r.y, null);
+        }
+        g.dispose();
+    }
+
+    /**
+     * Makes sure the VRAM copy exists and still holds the sprites.
+     * gc is the configuration of the component being painted; null means headless.
+     */
+    public void beginFrame(GraphicsConfiguration gc) {
+        if (gc == null) {
+            return;
+        }
+        if (vram == null) {
+            createSurface(gc);
+            return;
+        }
+        int status = vram.validate(gc);
+        if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+            vram.flush();
+            createSurface(gc);
+        } else if (status == VolatileImage.IMAGE_RESTORED) {
+            restore();
+        }
+    }
+
+    private void createSurface(GraphicsConfiguration gc) {
+        vram = gc.createCompatibleVolatileImage(backing.getWidth(), backing.getHeight(), Transparency.TRANSLUCENT);
+        restore();
+    }
+
+    private void restore() {
+        Graphics2D g = vram.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(backing, 0, 0, null);
+        g.dispose();
+    }
+
+    private Image surface() {
+        // if the surface got lost mid-frame fall back to the system memory copy;
+        // the next beginFrame restores it
+        return (vram != null && !vram.contentsLost()) ? vram : backing;
+    }
+
+    public void draw(Graphics2D g, Region r, int x, int y) {
+        draw(g, r, x, y, r.w, r.h);
+    }
+
+    /** Draws the region stretched to w x h (a plain copy when the size matches). */
+    public void draw(Graphics2D g, Region r, int x, int y, int w, int h) {
+        g.drawImage(surface(), x, y, x + w, y + h, r.x, r.y, r.x + r.w, r.y + r.h, null);
+    }
+
+    /**
+     * Fills w x h by repeating the region vertically; the last segment is cropped.
+     * Used for tube bodies so arbitrary heights need no uniquely scaled image.
+     */
+    public void drawTiled(Graphics2D g, Region r, int x, int y, int w, int h) {
+        Image img = surface();
+        for (int off = 0; off < h; off += r.h) {
+            int segH = Math.min(r.h, h - off);
+            g.drawImage(img, x, y + off, x + w, y + off + segH, r.x, r.y, r.x + r.w, r.y + segH, null);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Process-wide sprite cache.
+ * - decodes each asset once (ImageIO, synchronous, no Toolkit async loading)
+ * - hands out pre-scaled images in the display's native (compatible) format
+ * - scaled copies are keyed by (resource, width, height) and evicted LRU, since
+ *   tube bodies come in many different heights
+ * - collision masks are built from a scaled copy's alpha channel when first asked for,
+ *   and cached the same way
+ *
+ * Thread-safe: tick thread, EDT and loader threads may all ask for sprites. Decoding in
+ * preload() and scaling in get() run outside the lock, so AssetLoader threads work in parallel.
+ */
+public class SpriteCache {
+
+    /** Max number of scaled variants kept around. Decoded sources are never evicted. */
+    private static final int MAX_SCALED = 96;
+    /** Pixels with at least this alpha count as solid for collision. */
+    private static final int MASK_ALPHA = 128;
+
+    private static final SpriteCache SHARED = new SpriteCache(MAX_SCALED);
+
+    public static SpriteCache shared() {
+        return SHARED;
+    }
+
+    private final Map<String, BufferedImage> sources = new HashMap<>();
+    private final Set<String> missing = new HashSet<>();
+    private final LinkedHashMap<Key, BufferedImage> scaled;
+    private final LinkedHashMap<Key, CollisionMask> masks;
+    private int hits, misses;
+
+    SpriteCache(final int maxScaled) {
+        this.scaled = lru(maxScaled);
+        this.masks = lru(maxScaled);
+    }
+
+    private static <V> LinkedHashMap<Key, V> lru(final int max) {
+        // access-ordered map -> eldest entry is the least recently used one
+        return new LinkedHashMap<>(max * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+                return size() > max;
+            }
+        };
+    }
+
+    /**
+     * Returns the sprite scaled to w x h. Non-positive sizes return the decoded source as-is.
+     * Missing resources give a transparent placeholder, like RealImage always did.
+     */
+    public BufferedImage get(String src, int w, int h) {
+        Key key = new Key(src, w, h);
+        BufferedImage base;
+        synchronized (this) {
+            if (w <= 0 || h <= 0) {
+                return source(src, w, h);
+            }
+            BufferedImage img = scaled.get(key);
+            if (img != null) {
+                hits++;
+                return img;
+            }
+            misses++;
+            base = source(src, w, h);
+        }
+        BufferedImage img = scale(base, w, h);
+        synchronized (this) {
+            // another thread may have scaled the same size meanwhile; keep the first
+            BufferedImage raced = scaled.get(key);
+            if (raced != null) return raced;
+            scaled.put(key, img);
+            return img;
+        }
+    }
+
+    /**
+     * Decodes src ahead of time without holding the lock, so several loader threads can
+     * decode at once. Does nothing when it is already decoded.
+     */
+    public void preload(String src) {
+        synchronized (this) {
+            if (sources.containsKey(src)) return;
+        }
+        BufferedImage img = read(src);
+        synchronized (this) {
+            if (sources.containsKey(src)) return;
+            if (img == null) {
+                missing.add(src);
+                img = createImage(1, 1);
+            }
+            sources.put(src, img);
+        }
+    }
+
+    /**
+     * Opacity mask of the sprite scaled to w x h, or null when the resource is missing
+     * (the placeholder is fully transparent, so a mask would make it untouchable).
+     */
+    public synchronized CollisionMask mask(String src, int w, int h) {
+        Key key = new Key(src, w, h);
+        CollisionMask mask = masks.get(key);
+        if (mask == null) {
+            BufferedImage img = get(src, w, h);
+            if (missing.contains(src)) return null;
+            mask = new CollisionMask(w, h);
+            for (int y = 0; y < h; y++) {
+                for (int x = 0; x < w; x++) {
+                    if ((img.getRGB(x, y) >>> 24) >= MASK_ALPHA) mask.set(x, y);
+                }
+            }
+            masks.put(key, mask);
+        }
+        return mask;
+    }
+
+    public synchronized int size() { return scaled.size(); }
+    public synchronized int getHits() { return hits; }
+    public synchronized int getMisses() { return misses; }
+
+    public synchronized void clear() {
+        scaled.clear();
+        masks.clear();
+        sources.clear();
+        missing.clear();
+    }
+
+    private BufferedImage source(String src, int w, int h) {
+        BufferedImage img = sources.get(src);
+        if (img == null) {
+            img = decode(src, w, h);
+            sources.put(src, img);
+        }
+        return img;
+    }
+
+    private BufferedImage decode(String src, int w, int h) {
+        BufferedImage img = read(src);
+        if (img != null) return img;
+        // fallback placeholder
+        missing.add(src);
+        return createImage(Math.max(1, w), Math.max(1, h));
+    }
+
+    /** Decodes a resource into the compatible format; null when missing or unreadable. */
+    private static BufferedImage read(String src) {
+        java.net.URL url = SpriteCache.class.getResource(src);
+        if (url != null) {
+            try {
+                BufferedImage raw = ImageIO.read(url);
+                if (raw != null) {
+                    return toCompatible(raw);
+                }
+            } catch (Exception e) {
+                System.err.println("Error decoding " + src + ": " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private static BufferedImage toCompatible(BufferedImage raw) {
+        BufferedImage img = createImage(raw.getWidth(), raw.getHeight());
+        Graphics2D g = img.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(raw, 0, 0, null);
+        g.dispose();
+        return img;
+    }
+
+    /**
+     * Same quality class as SCALE_SMOOTH but without the slow area-averaging filter:
+     * halve with bilinear steps until close to the target, then do one final draw.
+     * A single bilinear step from 500px down to 80px would skip most source pixels.
+     */
+    private static BufferedImage scale(BufferedImage src, int w, int h) {
+        BufferedImage cur = src;
+        int cw = src.getWidth(), ch = src.getHeight();
+        while (cw / 2 >= w && ch / 2 >= h) {
+            cw /= 2;
+            ch /= 2;
+            cur = draw(cur, cw, ch);
+        }
+        return (cw == w && ch == h) ? cur : draw(cur, w, h);
+    }
+
+    private static BufferedImage draw(BufferedImage src, int w, int h) {
+        BufferedImage out = createImage(w, h);
+        Graphics2D g = out.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(src, 0, 0, w, h, null);
+        g.dispose();
+        return out;
+    }
+
+    /** Translucent image in the screen's pixel layout, or plain ARGB when there is no screen. */
+    static BufferedImage createImage(int w, int h) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            return gc.createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    /** Opaque counterpart of createImage, for backgrounds. */
+    static BufferedImage createOpaqueImage(int w, int h) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            return gc.createCompatibleImage(w, h, Transparency.OPAQUE);
+        }
+        return new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+    }
+
+    private static final class Key {
+        final String src;
+        final int w, h;
+
+        Key(String src, int w, int h) {
+            this.src = src;
+            this.w = w;
+            this.h = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return w == k.w && h == k.h && src.equals(k.src);
+        }
+
+        @Override
+        public int hashCode() {
+            return (src.hashCode() * 31 + w) * 31 + h;
+        }
+    }
+}
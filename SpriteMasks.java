@@ -0,0 +1,43 @@
+/**
+ * CollisionMasks taken from the same scaled sprites the game draws (via SpriteCache).
+ * Uses only image decoding, so it also works on headless machines.
+ */
+public class SpriteMasks implements CollisionMasks {
+
+    private static final SpriteMasks SHARED = new SpriteMasks(SpriteCache.shared());
+
+    public static SpriteMasks shared() {
+        return SHARED;
+    }
+
+    private final SpriteCache cache;
+
+    public SpriteMasks(SpriteCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public CollisionMask bird(int w, int h) {
+        return cache.mask(SpriteAtlas.BIRD.src, w, h);
+    }
+
+    @Override
+    public CollisionMask tubeBody(int w) {
+        return cache.mask(SpriteAtlas.TUBE_BODY.src, w, SpriteAtlas.TUBE_BODY.h);
+    }
+
+    @Override
+    public CollisionMask tubeCap(int w) {
+        return cache.mask(SpriteAtlas.TUBE_TOP.src, w, TubeColumn.CAP_HEIGHT);
+    }
+
+    @Override
+    public CollisionMask coin(int w, int h) {
+        return cache.mask(SpriteAtlas.COIN.src, w, h);
+    }
+
+    @Override
+    public CollisionMask timer(int w, int h) {
+        return cache.mask(SpriteAtlas.TIMER.src, w, h);
+    }
+}
@@ -0,0 +1,136 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.stream.Stream;
+
+/**
+ * Append-only run history: fixed-size binary records in memory-mapped segment files.
+ * Appending is a handful of stores into the mapping, so the game thread makes no system
+ * call per record; the OS writes the pages back, and they survive a crash of the game.
+ * A full segment is rolled over to the next file (telemetry/runs-000001.seg, ...).
+ *
+ * Segment: 16 byte header {int magic 'FBTL', int version, int recordSize, int count}
+ * followed by count records. count is bumped after a record is complete, so a reader
+ * never sees a half-written one. Record layout (RECORD_SIZE bytes, big endian):
+ *   0 byte type (RUN / SAMPLE), 1 byte level, 2 byte outcome, 3 unused,
+ *   4 int ticks, 8 long wall-clock millis, 16 long seed, 24 int points, 28 int coins,
+ *   32 int scroll speed (px/tick), 36 int time left (ms),
+ *   40 int frames drawn (RUN) or bird y (SAMPLE), 44 int slowest frame (us, RUN only)
+ * Read with TelemetryReader.
+ */
+public class TelemetryLog {
+    static final int MAGIC = 0x4642544C; // "FBTL"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 48;
+    static final int RECORDS_PER_SEGMENT = 4096;
+    static final int SEGMENT_SIZE = HEADER_SIZE + RECORD_SIZE * RECORDS_PER_SEGMENT;
+    static final int COUNT_OFFSET = 12;
+
+    /** One record per finished (or abandoned) run. */
+    public static final int RUN = 1;
+    /** Periodic snapshot while a run is in progress. */
+    public static final int SAMPLE = 2;
+
+    private final Path dir;
+    private int segmentIndex;
+    private MappedByteBuffer segment;
+    private int count;
+
+    private TelemetryLog(Path dir) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+        // continue the newest segment if it still has room
+        int last = 0;
+        try (Stream<Path> files = Files.list(dir)) {
+            last = files.mapToInt(TelemetryLog::segmentIndex).max().orElse(0);
+        }
+        if (last > 0) {
+            segmentIndex = last;
+            segment = map(segmentPath(dir, last));
+            count = segment.getInt(COUNT_OFFSET);
+            if (segment.getInt(0) != MAGIC || count >= RECORDS_PER_SEGMENT) roll();
+        } else {
+            roll();
+        }
+    }
+
+    /** Opens (or creates) the log in dir; null when the directory is unusable. */
+    public static TelemetryLog open(Path dir) {
+        try {
+            return new TelemetryLog(dir);
+        } catch (IOException e) {
+            System.err.println("Telemetry disabled: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public synchronized void run(GameWorld world, long seed, int frames, int slowestFrameMicros) {
+        append(RUN, world, seed, frames, slowestFrameMicros);
+    }
+
+    public synchronized void sample(GameWorld world, long seed) {
+        append(SAMPLE, world, seed, world.getBird().getY(), 0);
+    }
+
+    private void append(int type, GameWorld world, long seed, int extra, int extra2) {
+        if (count == RECORDS_PER_SEGMENT && !roll()) return;
+        MappedByteBuffer b = segment;
+        int at = HEADER_SIZE + count * RECORD_SIZE;
+        b.put(at, (byte) type);
+        b.put(at + 1, (byte) world.getLevel());
+        b.put(at + 2, (byte) world.getOutcome().ordinal());
+        b.putInt(at + 4, world.getTicks());
+        b.putLong(at + 8, System.currentTimeMillis());
+        b.putLong(at + 16, seed);
+        b.putInt(at + 24, world.getPoints());
+        b.putInt(at + 28, world.getCoinsCollected());
+        b.putInt(at + 32, world.getTubeColumn().getDx());
+        b.putInt(at + 36, (int) Math.min(Integer.MAX_VALUE, world.getTimeLeftMillis()));
+        b.putInt(at + 40, extra);
+        b.putInt(at + 44, extra2);
+        b.putInt(COUNT_OFFSET, ++count);
+    }
+
+    /** Starts the next segment file. Rare, so the file system calls are fine here. */
+    private boolean roll() {
+        try {
+            segmentIndex++;
+            MappedByteBuffer b = map(segmentPath(dir, segmentIndex));
+            b.putInt(0, MAGIC);
+            b.putInt(4, VERSION);
+            b.putInt(8, RECORD_SIZE);
+            b.putInt(COUNT_OFFSET, 0);
+            segment = b;
+            count = 0;
+            return true;
+        } catch (IOException e) {
+            System.err.println("Telemetry segment roll failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // the mapping stays valid after the channel is closed
+            return ch.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+        }
+    }
+
+    static Path segmentPath(Path dir, int index) {
+        return dir.resolve(String.format("runs-%06d.seg", index));
+    }
+
+    /** Index of a segment file name, 0 for anything else. */
+    static int segmentIndex(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith("runs-") || !name.endsWith(".seg")) return 0;
+        try {
+            return Integer.parseInt(name.substring(5, name.length() - 4));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Streams the records of a TelemetryLog directory, one segment mapped at a time and one
+ * reused Record instance, so any amount of history is read in constant memory.
+ *
+ * Usage: java TelemetryReader [telemetry-dir]   prints per-level run statistics
+ */
+public class TelemetryReader {
+
+    /** One record; the same instance is refilled for every record visited. */
+    public static class Record {
+        public int type, level, ticks, points, coins, speed, timeLeftMillis, frames, slowestFrameMicros, birdY;
+        public long wallMillis, seed;
+        public GameWorld.Outcome outcome;
+    }
+
+    /** Visits every record of every segment in dir, oldest first. */
+    public static void forEach(Path dir, Consumer<Record> visitor) throws IOException {
+        int[] segments;
+        try (Stream<Path> files = Files.list(dir)) {
+            segments = files.mapToInt(TelemetryLog::segmentIndex).filter(i -> i > 0).sorted().toArray();
+        }
+        Record r = new Record();
+        GameWorld.Outcome[] outcomes = GameWorld.Outcome.values();
+        for (int index : segments) {
+            MappedByteBuffer b;
+            try (FileChannel ch = FileChannel.open(TelemetryLog.segmentPath(dir, index), StandardOpenOption.READ)) {
+                if (ch.size() < TelemetryLog.HEADER_SIZE) continue;
+                b = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            }
+            if (b.getInt(0) != TelemetryLog.MAGIC || b.getInt(4) != TelemetryLog.VERSION) continue;
+            int size = b.getInt(8);
+            if (size < TelemetryLog.RECORD_SIZE) continue; // damaged header
+            int count = Math.min(b.getInt(TelemetryLog.COUNT_OFFSET),
+                    (b.capacity() - TelemetryLog.HEADER_SIZE) / size);
+            for (int i = 0; i < count; i++) {
+                int at = TelemetryLog.HEADER_SIZE + i * size;
+                r.type = b.get(at);
+                r.level = b.get(at + 1);
+                r.outcome = outcomes[Math.min(b.get(at + 2) & 0xFF, outcomes.length - 1)];
+                r.ticks = b.getInt(at + 4);
+                r.wallMillis = b.getLong(at + 8);
+                r.seed = b.getLong(at + 16);
+                r.points = b.getInt(at + 24);
+                r.coins = b.getInt(at + 28);
+                r.speed = b.getInt(at + 32);
+                r.timeLeftMillis = b.getInt(at + 36);
+                boolean run = r.type == TelemetryLog.RUN;
+                r.frames = run ? b.getInt(at + 40) : 0;
+                r.birdY = run ? 0 : b.getInt(at + 40);
+                r.slowestFrameMicros = run ? b.getInt(at + 44) : 0;
+                visitor.accept(r);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get(args.length > 0 ? args[0] : "telemetry");
+        int n = GameWorld.MAX_LEVEL + 1;
+        long[] runs = new long[n], ticks = new long[n], points = new long[n], coins = new long[n], speed = new long[n];
+        long[] hitTube = new long[n], timeUp = new long[n], passed = new long[n], samples = new long[n];
+        int[] slowest = new int[n];
+        forEach(dir, r -> {
+            int l = Math.max(0, Math.min(n - 1, r.level));
+            if (r.type == TelemetryLog.SAMPLE) {
+                samples[l]++;
+                return;
+            }
+            runs[l]++;
+            ticks[l] += r.ticks;
+            points[l] += r.points;
+            coins[l] += r.coins;
+            speed[l] += r.speed;
+            if (r.outcome == GameWorld.Outcome.HIT_TUBE) hitTube[l]++;
+            if (r.outcome == GameWorld.Outcome.TIME_UP) timeUp[l]++;
+            if (r.points >= GameWorld.requiredPointsToPass(r.level)) passed[l]++;
+            slowest[l] = Math.max(slowest[l], r.slowestFrameMicros);
+        });
+        System.out.printf("%5s %6s %9s %7s %6s %6s %6s %6s %6s %8s %10s%n",
+                "level", "runs", "avg sec", "points", "coins", "speed", "hit%", "time%", "pass%", "samples", "worst ms");
+        for (int l = 1; l < n; l++) {
+            if (runs[l] == 0 && samples[l] == 0) continue;
+            double k = Math.max(1, runs[l]);
+            System.out.printf("%5d %6d %9.1f %7.2f %6.2f %6.1f %6.1f %6.1f %6.1f %8d %10.1f%n",
+                    l, runs[l], ticks[l] * GameWorld.TICK_MS / 1000.0 / k, points[l] / k, coins[l] / k,
+                    speed[l] / k, 100 * hitTube[l] / k, 100 * timeUp[l] / k, 100 * passed[l] / k,
+                    samples[l], slowest[l] / 1000.0);
+        }
+    }
+}
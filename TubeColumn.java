@@ -0,0 +1,121 @@
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tubes, coins and timer power-ups scrolling towards the bird, with level support.
+ * Columns stream in one at a time from a ColumnStream as soon as the spawn line right of
+ * the screen is free, so there is no empty gap between batches and no generation work
+ * on the tick. A point is scored for every chunk of (5 + level) columns passed.
+ * Entities live in a primitive EntityStore and all move with one column-wide speed, so
+ * a tick is a single pass over an int array and steady-state play allocates nothing.
+ */
+public class TubeColumn {
+    private static final int SPAWN_X = GameWorld.WIDTH + 50;
+    /** The top cap is drawn this many pixels down into the tube. */
+    public static final int CAP_OVERLAP = 2;
+    /**
+     * Height of the cap drawn above a capped tube, whatever the tube's height: the cap is
+     * the unscaled TUBE_TOP sprite, so the pixels drawn and its collision mask are the same.
+     */
+    public static final int CAP_HEIGHT = 40;
+
+    private int base = GameWorld.HEIGHT - 60;
+    private final EntityStore store = new EntityStore(64);
+    private final ColumnStream stream;
+    private final int chunkSize;
+    private int nextSpawnX = SPAWN_X; // x of the next column, scrolls with the others
+    private int lastDx = 0; // distance moved by the last tick, for interpolation
+    private int scrolled = 0; // total distance moved, drives the ParallaxBackground
+    private int passedInChunk = 0;
+    private int points = 0;
+    private int speed = 5;
+    private int changeSpeed = speed;
+    private int level = 1; // influences speed & gap
+
+    public TubeColumn(int level) {
+        this(level, ThreadLocalRandom.current().nextLong(), false);
+    }
+
+    /**
+     * @param seed       level layout seed; same seed and level give the same columns
+     * @param background generate upcoming columns on the shared background thread
+     */
+    public TubeColumn(int level, long seed, boolean background) {
+        this.level = level;
+        LevelGenerator generator = new LevelGenerator(level, seed);
+        chunkSize = generator.getChunkSize();
+        stream = new ColumnStream(generator, background);
+        spawnColumns();
+    }
+
+    /** Pulls columns from the stream while the spawn line is free. */
+    private void spawnColumns() {
+        while (nextSpawnX <= SPAWN_X) {
+            stream.next();
+            spawnColumn(nextSpawnX);
+            nextSpawnX += LevelGenerator.SPACING;
+        }
+    }
+
+    private void spawnColumn(int x) {
+        int tubeWidth = LevelGenerator.TUBE_WIDTH;
+        int gapY = stream.gapY();
+        int gapSize = stream.gapSize();
+
+        // Create a vertical stack of tube pieces leaving a gap
+        // We'll create top half and bottom half as two tubes to allow top decoration.
+        int topHeight = gapY - 100;
+        if (topHeight < 40) topHeight = 40;
+        store.add(EntityStore.TUBE_CAPPED, x, topHeight - 10, tubeWidth, topHeight);
+        // bottom tube placed below gap
+        store.add(EntityStore.TUBE, x, gapY + gapSize, tubeWidth, GameWorld.HEIGHT - (gapY+gapSize) - 60);
+
+        // coin and timer are added in x order, which keeps the store sorted for collision
+        int coinX = x + tubeWidth + 40;
+        boolean hasTimer = stream.timerDx() >= 0;
+        boolean timerFirst = hasTimer && stream.timerDx() < coinX - x;
+        if (timerFirst) addTimer(x);
+        if (stream.coinY() >= 0) {
+            store.add(EntityStore.COIN, coinX, stream.coinY(), LevelGenerator.COIN_SIZE, LevelGenerator.COIN_SIZE);
+        }
+        if (hasTimer && !timerFirst) addTimer(x);
+    }
+
+    private void addTimer(int columnX) {
+        store.add(EntityStore.TIMER, columnX + stream.timerDx(), stream.timerY(), LevelGenerator.TIMER_SIZE, LevelGenerator.TIMER_SIZE);
+    }
+
+    public void tick() {
+        int dx = getDx();
+        lastDx = dx;
+        scrolled += dx;
+        nextSpawnX -= dx;
+        passedInChunk += store.scroll(dx);
+        while (passedInChunk >= chunkSize) {
+            passedInChunk -= chunkSize;
+            this.points += 1;
+            if (changeSpeed == points) {
+                this.speed += 1;
+                changeSpeed += 5;
+            }
+        }
+        spawnColumns();
+    }
+
+    public EntityStore getStore() { return store; }
+
+    /** Scroll speed of every entity, in pixels per tick. */
+    public int getDx() { return speed + level/2; }
+    /** Add to an entity's x to draw it between the previous and the current tick. */
+    public int renderOffset(float alpha) { return Math.round(lastDx * (1f - alpha)); }
+    /** Total distance scrolled since the level started, in pixels. */
+    public int getScrolled() { return scrolled; }
+
+    public int getLevel() { return level; }
+    public int getPoints() { return points; }
+    public void setPoints(int p) { this.points = p; }
+
+    public void setSpeed(int s) {
+        // column-wide: nothing per entity to update
+        this.speed = s;
+    }
+}
@@ -0,0 +1,106 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test for ValidationServer. Plays runs with the LOOKAHEAD bot on random levels and
+ * seeds, tampers with the claimed points of some of them, then posts them all with up
+ * to -concurrency requests in flight and checks every verdict: honest runs must be
+ * accepted and tampered ones rejected. Prints throughput and request latency.
+ *
+ * Usage: java ValidationLoadTest [-url U] [-runs N] [-concurrency N] [-tamper P] [-seed N]
+ * Exits with status 1 when any verdict is wrong or a request fails.
+ */
+public class ValidationLoadTest {
+    // byte offset of the claimed points in the RunRecording format
+    private static final int POINTS_OFFSET = 4 + 1 + 1 + 8 + 1 + 4;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        String url = "http://127.0.0.1:" + ValidationServer.DEFAULT_PORT + "/validate";
+        int runs = 10_000, concurrency = 1000;
+        double tamper = 0.2;
+        long seed = 42;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-url": url = args[++i]; break;
+                case "-runs": runs = Integer.parseInt(args[++i]); break;
+                case "-concurrency": concurrency = Integer.parseInt(args[++i]); break;
+                case "-tamper": tamper = Double.parseDouble(args[++i]); break;
+                case "-seed": seed = Long.parseLong(args[++i]); break;
+                default: throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        List<byte[]> bodies = new ArrayList<>(runs);
+        boolean[] honest = new boolean[runs];
+        for (int i = 0; i < runs; i++) {
+            byte[] body = play(1 + random.nextInt(GameWorld.MAX_LEVEL), random.nextLong());
+            honest[i] = random.nextDouble() >= tamper;
+            if (!honest[i]) body[POINTS_OFFSET + 3]++; // claim one point more than was scored
+            bodies.add(body);
+        }
+        System.out.printf("%d runs recorded, %.0f%% tampered; posting to %s with %d in flight%n",
+                runs, tamper * 100, url, concurrency);
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        URI uri = URI.create(url);
+        Semaphore inFlight = new Semaphore(concurrency);
+        PerfHistogram latency = new PerfHistogram();
+        AtomicInteger wrong = new AtomicInteger(), failed = new AtomicInteger();
+        CompletableFuture<?>[] requests = new CompletableFuture<?>[runs];
+        long t0 = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            inFlight.acquire();
+            boolean expectAccept = honest[i];
+            long start = System.nanoTime();
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(bodies.get(i))).build();
+            requests[i] = client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, e) -> {
+                        synchronized (latency) {
+                            latency.recordNanos(System.nanoTime() - start);
+                        }
+                        inFlight.release();
+                        if (e != null) {
+                            if (failed.getAndIncrement() == 0) System.err.println("Request failed: " + e);
+                        } else if ((response.statusCode() == 200) != expectAccept || response.statusCode() >= 500) {
+                            if (wrong.getAndIncrement() == 0) System.err.println("Wrong verdict: " + response.body().trim());
+                        }
+                    });
+        }
+        CompletableFuture.allOf(requests).exceptionally(e -> null).join();
+        double secs = (System.nanoTime() - t0) / 1e9;
+        System.out.printf("%d validations in %.2f s: %.0f/s  latency p50 %d p99 %d max %d us  wrong %d failed %d%n",
+                runs, secs, runs / secs, latency.percentile(0.5), latency.percentile(0.99), latency.max(),
+                wrong.get(), failed.get());
+        if (wrong.get() > 0 || failed.get() > 0) System.exit(1);
+    }
+
+    /** One bot game with pixel collision, recorded like the game records a run. */
+    private static byte[] play(int level, long seed) throws IOException {
+        GameWorld world = new GameWorld(level, seed, false, SpriteMasks.shared());
+        RunRecording r = new RunRecording(level, seed, true);
+        while (world.isRunning()) {
+            if (JumpPolicy.LOOKAHEAD.shouldJump(world)) {
+                r.jump(world.getTicks());
+                world.jump();
+            }
+            world.tick();
+        }
+        r.finish(world);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        r.write(out);
+        return out.toByteArray();
+    }
+}
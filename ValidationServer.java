@@ -0,0 +1,168 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Headless score validation. Runs are submitted as RunRecordings (level, seed, jump ticks
+ * and the claimed result) over HTTP on the loopback interface; each one is re-simulated
+ * with the game's own rules (ReplayRunner) and accepted only when it ends exactly as
+ * claimed. A valid submission can only come from actually playing the jumps it lists.
+ *
+ *   POST /validate  body: one recording in the RunRecording format, at most MAX_BODY bytes
+ *                   200 "ACCEPT ..."  replay ends with the claimed ticks, points, coins, outcome
+ *                   409 "REJECT ..."  it does not; the replayed result is in the body
+ *                   400               not a recording, a run longer than MAX_TICKS, or
+ *                                     one without pixel collision
+ *   GET  /stats     accepted, rejected and malformed counts
+ *
+ * Each request is handled and re-simulated on its own virtual thread where the runtime has
+ * them (Java 21+), otherwise on a fixed pool sized to the CPUs; replay is pure computation,
+ * so the CPU count bounds throughput either way. Every replay uses pixel collision with the
+ * game's shared masks: the flag in a submission is the client's word, and with bounding
+ * boxes the tube caps would not collide at all, so such runs are refused.
+ *
+ * Usage: java ValidationServer [-port N] [-threads N]   (load test: ValidationLoadTest)
+ */
+public class ValidationServer {
+    public static final int DEFAULT_PORT = 8077;
+    static final int MAX_BODY = 64 * 1024;
+    // far more than any level's clock allows, even with every timer power-up
+    static final int MAX_TICKS = 200_000;
+    private static final int BACKLOG = 4096;
+
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final CollisionMasks masks = SpriteMasks.shared();
+    private final LongAdder accepted = new LongAdder(), rejected = new LongAdder(), malformed = new LongAdder();
+
+    public ValidationServer(int port, ExecutorService workers) throws IOException {
+        this.workers = workers;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        server.setExecutor(workers);
+        server.createContext("/validate", this::validate);
+        server.createContext("/stats", this::stats);
+    }
+
+    public void start() { server.start(); }
+
+    public void stop() {
+        server.stop(0);
+        workers.shutdown();
+    }
+
+    public int getPort() { return server.getAddress().getPort(); }
+
+    private void validate(HttpExchange ex) throws IOException {
+        try {
+            if (!"POST".equals(ex.getRequestMethod())) {
+                reply(ex, 405, "POST a recording");
+                return;
+            }
+            RunRecording r;
+            try {
+                r = RunRecording.read(new ByteArrayInputStream(body(ex.getRequestBody())));
+                if (r.getTicks() > MAX_TICKS) throw new IOException("run of " + r.getTicks() + " ticks");
+                if (!r.isPixelCollision()) throw new IOException("run without pixel collision");
+            } catch (IOException e) {
+                malformed.increment();
+                reply(ex, 400, "MALFORMED " + e.getMessage());
+                return;
+            }
+            ReplayRunner.Result res = ReplayRunner.replay(r, masks);
+            GameWorld w = res.world;
+            String result = "ticks " + w.getTicks() + " points " + w.getPoints()
+                    + " coins " + w.getCoinsCollected() + " outcome " + w.getOutcome();
+            if (res.matches(r)) {
+                accepted.increment();
+                reply(ex, 200, "ACCEPT " + result);
+            } else {
+                rejected.increment();
+                reply(ex, 409, "REJECT replayed " + result);
+            }
+        } finally {
+            ex.close();
+        }
+    }
+
+    private void stats(HttpExchange ex) throws IOException {
+        try {
+            reply(ex, 200, "accepted " + accepted.sum() + " rejected " + rejected.sum()
+                    + " malformed " + malformed.sum());
+        } finally {
+            ex.close();
+        }
+    }
+
+    /** Reads the request body, refusing anything larger than MAX_BODY. */
+    private static byte[] body(InputStream in) throws IOException {
+        byte[] body = in.readNBytes(MAX_BODY + 1);
+        if (body.length > MAX_BODY) throw new IOException("submission larger than " + MAX_BODY + " bytes");
+        return body;
+    }
+
+    private static void reply(HttpExchange ex, int status, String text) throws IOException {
+        byte[] bytes = (text + "\n").getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * A virtual thread per task, or null before Java 21. Looked up reflectively, so this
+     * still compiles and runs on Java 17.
+     */
+    static ExecutorService virtualThreads() {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    static ExecutorService pool(int threads) {
+        AtomicInteger n = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "validator-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        int port = DEFAULT_PORT;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-port": port = Integer.parseInt(args[++i]); break;
+                case "-threads": threads = Integer.parseInt(args[++i]); break;
+                default: throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+        ExecutorService workers = virtualThreads();
+        String mode = "virtual threads";
+        if (workers == null) {
+            workers = pool(threads);
+            mode = threads + " threads";
+        }
+        ValidationServer server = new ValidationServer(port, workers);
+        server.start();
+        System.out.println("Validating runs on http://" + InetAddress.getLoopbackAddress().getHostAddress()
+                + ":" + server.getPort() + "/validate with " + mode);
+    }
+}
@@ -0,0 +1,87 @@
+import java.awt.*;
+import java.awt.image.ImageObserver;
+
+/**
+ * Draws a GameWorld with the shared SpriteAtlas.
+ * The model classes know nothing about AWT; everything visual about them is here.
+ */
+public class WorldRenderer {
+
+    private final SpriteAtlas atlas = SpriteAtlas.shared();
+    // area covered by the world at the last addDamage() call
+    private final DirtyRegion lastBounds = new DirtyRegion();
+    private final DirtyRegion bounds = new DirtyRegion();
+    private boolean drawCaps = true; // see QualityGovernor
+
+    /**
+     * @param gc    configuration of the target component, null when headless
+     * @param alpha interpolation between the previous and the current tick, 1 = current
+     */
+    public void render(Graphics2D g, GameWorld world, GraphicsConfiguration gc, ImageObserver obs, float alpha) {
+        atlas.beginFrame(gc);
+        TubeColumn column = world.getTubeColumn();
+        EntityStore store = column.getStore();
+        int off = column.renderOffset(alpha);
+        for (int k = 0, n = store.span(); k < n; k++) {
+            int s = store.slotAt(k);
+            if (!store.isAlive(s)) continue;
+            int x = store.x(s) + off;
+            int top = top(store, s);
+            // entities outside a partial repaint are skipped before any sprite work
+            if (!g.hitClip(x, top, store.w(s), store.y(s) + store.h(s) - top)) continue;
+            switch (store.type(s)) {
+                case EntityStore.COIN:
+                    atlas.draw(g, SpriteAtlas.COIN, x, store.y(s), store.w(s), store.h(s));
+                    break;
+                case EntityStore.TIMER:
+                    atlas.draw(g, SpriteAtlas.TIMER, x, store.y(s), store.w(s), store.h(s));
+                    break;
+                default:
+                    renderTube(g, x, store.y(s), store.w(s), store.h(s), drawCaps && store.type(s) == EntityStore.TUBE_CAPPED);
+            }
+        }
+        Bird bird = world.getBird();
+        atlas.draw(g, SpriteAtlas.BIRD, bird.getX(), bird.renderY(alpha), bird.getWidth(), bird.getHeight());
+    }
+
+    /** Turns drawing of the decorative tube caps on or off; collision is not affected. */
+    public void setDrawCaps(boolean on) {
+        drawCaps = on;
+    }
+
+    /**
+     * Adds what changed since the previous call to damage: the area every entity and the
+     * bird covered then (including ones picked up or scrolled off since) plus the area they
+     * cover now.
+     */
+    public void addDamage(GameWorld world, DirtyRegion damage) {
+        bounds.clear();
+        EntityStore store = world.getTubeColumn().getStore();
+        for (int k = 0, n = store.span(); k < n; k++) {
+            int s = store.slotAt(k);
+            if (!store.isAlive(s)) continue;
+            int top = top(store, s);
+            bounds.add(store.x(s), top, store.w(s), store.y(s) + store.h(s) - top);
+        }
+        Bird bird = world.getBird();
+        bounds.add(bird.getX(), bird.getY(), bird.getWidth(), bird.getHeight());
+        damage.add(lastBounds);
+        damage.add(bounds);
+        lastBounds.clear();
+        lastBounds.add(bounds);
+    }
+
+    /** Topmost drawn row of an entity; a capped tube's cap reaches above its y. */
+    private static int top(EntityStore store, int s) {
+        if (store.type(s) != EntityStore.TUBE_CAPPED) return store.y(s);
+        return store.y(s) - TubeColumn.CAP_HEIGHT + TubeColumn.CAP_OVERLAP;
+    }
+
+    private void renderTube(Graphics2D g, int x, int y, int w, int h, boolean topDrawn) {
+        // body is tiled, so any height is a handful of plain copies
+        atlas.drawTiled(g, SpriteAtlas.TUBE_BODY, x, y, w, h);
+        if (topDrawn) {
+            atlas.draw(g, SpriteAtlas.TUBE_TOP, x, y - TubeColumn.CAP_HEIGHT + TubeColumn.CAP_OVERLAP, w, TubeColumn.CAP_HEIGHT);
+        }
+    }
+}